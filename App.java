@@ -1,6 +1,6 @@
 package com.ozyra.battlearena;
 
-import com.ozyra.battlearena.scenes.SelectionScene;
+import com.ozyra.battlearena.scenes.Screens;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
@@ -16,11 +16,15 @@ public class App extends Application {
         stage.setTitle("Battle Arena");
 
         // 2. Load the first scene (The Character Selection Menu)
-        // We create a new SelectionScene, get its View (Scene object), and put it on the Stage
-        stage.setScene(new SelectionScene(stage).getScene());
+        // Screens builds the menu (and later the match screen) once, and switches between them
+        Screens screens = new Screens(stage);
+        screens.showMenu();
 
         // 3. Make the window visible to the user (it's hidden by default!)
         stage.show();
+
+        // 4. While the player picks characters, get the match screen ready in the background
+        screens.preload();
     }
 
     // The JAVA 'main' method
@@ -0,0 +1,290 @@
+package com.ozyra.battlearena.tools;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.HeadlessMatch;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.SimpleWeapon;
+import com.ozyra.battlearena.model.Weapon;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Command line tool for balancing: tries every combination of a few weapon and health changes,
+// plays many headless matches for each one on all CPU cores, and prints who wins and how fast.
+//
+// Usage: BalanceSweep [-damage 0.8,1,1.2] [-speed 1] [-cooldown 0.8,1,1.2] [-health 0.9,1,1.1]
+//                     [-weapon Bow|all] [-class Mage|all] [-matches 810] [-threads N] [-maxSec 60] [-csv sweep.csv]
+//
+// The numbers are multipliers: -damage 0.8,1,1.2 tries 80%, 100% and 120% of the normal damage.
+// damage/speed/cooldown change the weapon picked with -weapon, health changes the class picked with -class
+// ("all" = every weapon / every class). Every configuration plays the same matches (same matchups, same seeds),
+// so the differences between the lines come from the change, not from luck.
+public class BalanceSweep {
+
+    // One combination of the multipliers
+    record Config(double damage, double speed, double cooldown, double health) {
+    }
+
+    // What to change and how many matches to play
+    private final String weaponTarget, classTarget;
+    private final int matches, maxSeconds;
+
+    BalanceSweep(String weaponTarget, String classTarget, int matches, int maxSeconds) {
+        this.weaponTarget = weaponTarget;
+        this.classTarget = classTarget;
+        this.matches = matches;
+        this.maxSeconds = maxSeconds;
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        // ---- Read command line options ----
+        double[] damage = {1}, speed = {1}, cooldown = {1}, health = {1};
+        String weapon = "all", type = "all";
+        int matches = 810, maxSeconds = 60;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path csv = null;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-damage" -> damage = parseList(args[i + 1]);
+                case "-speed" -> speed = parseList(args[i + 1]);
+                case "-cooldown" -> cooldown = parseList(args[i + 1]);
+                case "-health" -> health = parseList(args[i + 1]);
+                case "-weapon" -> weapon = args[i + 1];
+                case "-class" -> type = args[i + 1];
+                case "-matches" -> matches = Integer.parseInt(args[i + 1]);
+                case "-threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "-maxSec" -> maxSeconds = Integer.parseInt(args[i + 1]);
+                case "-csv" -> csv = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        // ---- Every combination of the multipliers ----
+        List<Config> configs = new ArrayList<>();
+        for (double d : damage)
+            for (double s : speed)
+                for (double c : cooldown)
+                    for (double h : health)
+                        configs.add(new Config(d, s, c, h));
+
+        System.out.printf("Sweeping %d configurations x %d matches on %d threads (weapon: %s, class: %s, max %d s each)%n",
+                configs.size(), matches, threads, weapon, type, maxSeconds);
+
+        BalanceSweep sweep = new BalanceSweep(weapon, type, matches, maxSeconds);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long startNanos = System.nanoTime();
+
+        // 1. Cut every configuration into chunks, so all cores stay busy until the very end
+        //    (a few chunks per thread: some matches are much longer than others)
+        int chunk = Math.max(1, Math.min(matches, configs.size() * matches / (threads * 4) + 1));
+        List<List<Future<Tally>>> parts = new ArrayList<>();
+        for (Config config : configs) {
+            List<Future<Tally>> list = new ArrayList<>();
+            for (int from = 0; from < matches; from += chunk) {
+                int first = from;
+                int last = Math.min(matches, from + chunk);
+                list.add(pool.submit(() -> sweep.playRange(config, first, last)));
+            }
+            parts.add(list);
+        }
+
+        // 2. Add up the chunks of each configuration and print its line as soon as it is complete
+        printHeader();
+        Tally[] results = new Tally[configs.size()];
+        Tally total = new Tally(maxSeconds);
+        for (int k = 0; k < configs.size(); k++) {
+            Tally tally = new Tally(maxSeconds);
+            for (Future<Tally> part : parts.get(k)) {
+                tally.add(part.get());
+            }
+            results[k] = tally;
+            total.add(tally);
+            printLine(configs.get(k), tally);
+        }
+        pool.shutdown();
+
+        // 3. Throughput
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf(Locale.ROOT, "%nMatches: %d in %.2f s -> %.0f matches/s%n", total.matches, seconds, total.matches / seconds);
+        System.out.printf(Locale.ROOT, "Ticks:   %d -> %.0f ticks/s%n", total.ticks, total.ticks / seconds);
+
+        if (csv != null) {
+            writeCsv(csv, configs, results);
+            System.out.println("Results written to " + csv.toAbsolutePath());
+        }
+    }
+
+    // "0.8,1,1.2" -> {0.8, 1, 1.2}
+    static double[] parseList(String text) {
+        String[] parts = text.split(",");
+        double[] values = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Double.parseDouble(parts[i].trim());
+            if (values[i] <= 0) throw new IllegalArgumentException("Multipliers must be positive: " + text);
+        }
+        return values;
+    }
+
+    // Plays matches number 'from' (inclusive) to 'to' (exclusive) of one configuration on the current thread
+    Tally playRange(Config config, int from, int to) {
+        Tally tally = new Tally(maxSeconds);
+        Weapon[] weapons = weaponsFor(config);
+
+        for (int m = from; m < to; m++) {
+            // Same matchups and seeds as BatchRunner, so every configuration plays the same matches
+            int left = m % BatchRunner.LOADOUTS;
+            int right = (m / BatchRunner.LOADOUTS) % BatchRunner.LOADOUTS;
+
+            GameCharacter p1 = create(config, weapons, left, "P1", 100);
+            GameCharacter p2 = create(config, weapons, right, "P2", 1100);
+            GameController game = new GameController(1200, 600, p1, p2);
+            InputSource[] sources = {new ScriptedInput(m * 2L), new ScriptedInput(m * 2L + 1)};
+
+            long ticks = HeadlessMatch.play(game, sources, (long) maxSeconds * game.getTickRate());
+
+            tally.matches++;
+            tally.ticks += ticks;
+            GameCharacter winner = game.getWinner();
+            if (winner == p1) tally.win(left, ticks, game.getTickRate());
+            else if (winner == p2) tally.win(right, ticks, game.getTickRate());
+            else tally.draws++;
+            tally.play(left);
+            tally.play(right);
+        }
+
+        return tally;
+    }
+
+    // The weapons of BatchRunner.WEAPONS, with the configuration's changes applied to the chosen one(s)
+    private Weapon[] weaponsFor(Config config) {
+        Weapon[] weapons = new Weapon[BatchRunner.WEAPONS.length];
+        for (int w = 0; w < weapons.length; w++) {
+            Weapon normal = Weapon.createWeapon(BatchRunner.WEAPONS[w]);
+            boolean changed = weaponTarget.equalsIgnoreCase("all") || weaponTarget.equalsIgnoreCase(normal.getName());
+            if (changed && normal instanceof SimpleWeapon simple) {
+                weapons[w] = simple.withStats(
+                        Math.max(1, (int) Math.round(normal.getDamage() * config.damage())),
+                        normal.getSpeed() * config.speed(),
+                        Math.round(normal.getCooldownMs() * config.cooldown()));
+            } else {
+                weapons[w] = normal;
+            }
+        }
+        return weapons;
+    }
+
+    // Builds the character for loadout number 'loadout' (class * 3 + weapon), with the configuration's health
+    private GameCharacter create(Config config, Weapon[] weapons, int loadout, String name, double x) {
+        String type = BatchRunner.CLASSES[loadout / weapons.length];
+        GameCharacter c = GameCharacter.create(type, name, x, 300, weapons[loadout % weapons.length]);
+        if (classTarget.equalsIgnoreCase("all") || classTarget.equalsIgnoreCase(type)) {
+            c.setHealth(Math.max(1, (int) Math.round(c.getHealth() * config.health())));
+        }
+        return c;
+    }
+
+    // ---- Output ----
+
+    private static void printHeader() {
+        System.out.printf("%n%-6s %-6s %-6s %-6s | %-7s %-7s %-7s | %-7s %-7s %-7s | %-6s | %s%n",
+                "dmg", "speed", "cool", "health", "Warrior", "Mage", "Archer", "Sword", "Bow", "Magic", "draws", "time to kill p10/p50/p90 (s)");
+    }
+
+    private static void printLine(Config c, Tally t) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-6.2f %-6.2f %-6.2f %-6.2f |",
+                c.damage(), c.speed(), c.cooldown(), c.health()));
+        for (int k = 0; k < BatchRunner.CLASSES.length; k++) line.append(String.format(Locale.ROOT, " %6.1f%%", t.classRate(k)));
+        line.append(" |");
+        for (int k = 0; k < BatchRunner.WEAPONS.length; k++) line.append(String.format(Locale.ROOT, " %6.1f%%", t.weaponRate(k)));
+        line.append(String.format(Locale.ROOT, " | %5.1f%% | %5.1f / %5.1f / %5.1f",
+                t.matches == 0 ? 0 : 100.0 * t.draws / t.matches, t.ttkPercentile(0.10), t.ttkPercentile(0.50), t.ttkPercentile(0.90)));
+        System.out.println(line);
+    }
+
+    private static void writeCsv(Path file, List<Config> configs, Tally[] results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("damage,speed,cooldown,health,matches,draws,warrior,mage,archer,sword,bow,magic,ttk_p10,ttk_p50,ttk_p90,ticks");
+            for (int k = 0; k < configs.size(); k++) {
+                Config c = configs.get(k);
+                Tally t = results[k];
+                out.printf(Locale.ROOT, "%s,%s,%s,%s,%d,%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f,%.2f,%.2f,%.2f,%d%n",
+                        c.damage(), c.speed(), c.cooldown(), c.health(), t.matches, t.draws,
+                        t.classRate(0) / 100, t.classRate(1) / 100, t.classRate(2) / 100,
+                        t.weaponRate(0) / 100, t.weaponRate(1) / 100, t.weaponRate(2) / 100,
+                        t.ttkPercentile(0.10), t.ttkPercentile(0.50), t.ttkPercentile(0.90), t.ticks);
+            }
+        }
+    }
+
+    // Counters for a group of matches of one configuration. Every chunk fills its own Tally, so no locking is needed.
+    static class Tally {
+        private static final int BUCKETS_PER_SECOND = 10; // time-to-kill is counted in 0.1 s steps
+
+        long matches, ticks, draws;
+        final long[] classWins = new long[BatchRunner.CLASSES.length];
+        final long[] classPlayed = new long[BatchRunner.CLASSES.length];
+        final long[] weaponWins = new long[BatchRunner.WEAPONS.length];
+        final long[] weaponPlayed = new long[BatchRunner.WEAPONS.length];
+        final long[] timeToKill; // how many matches were won after 0.0 s, 0.1 s, 0.2 s, ...
+
+        Tally(int maxSeconds) {
+            timeToKill = new long[maxSeconds * BUCKETS_PER_SECOND + 1];
+        }
+
+        void win(int loadout, long ticks, int tickRate) {
+            classWins[loadout / BatchRunner.WEAPONS.length]++;
+            weaponWins[loadout % BatchRunner.WEAPONS.length]++;
+            int bucket = (int) (ticks * BUCKETS_PER_SECOND / tickRate);
+            timeToKill[Math.min(bucket, timeToKill.length - 1)]++;
+        }
+
+        void play(int loadout) {
+            classPlayed[loadout / BatchRunner.WEAPONS.length]++;
+            weaponPlayed[loadout % BatchRunner.WEAPONS.length]++;
+        }
+
+        // Win rate in % (of the appearances)
+        double classRate(int k) { return classPlayed[k] == 0 ? 0 : 100.0 * classWins[k] / classPlayed[k]; }
+        double weaponRate(int k) { return weaponPlayed[k] == 0 ? 0 : 100.0 * weaponWins[k] / weaponPlayed[k]; }
+
+        // The time (s) by which 'fraction' of the decided matches were over
+        double ttkPercentile(double fraction) {
+            long decided = matches - draws;
+            if (decided == 0) return 0;
+            long wanted = (long) Math.ceil(fraction * decided), seen = 0;
+            for (int b = 0; b < timeToKill.length; b++) {
+                seen += timeToKill[b];
+                if (seen >= wanted) return (double) b / BUCKETS_PER_SECOND;
+            }
+            return (double) (timeToKill.length - 1) / BUCKETS_PER_SECOND;
+        }
+
+        void add(Tally other) {
+            matches += other.matches;
+            ticks += other.ticks;
+            draws += other.draws;
+            for (int k = 0; k < classWins.length; k++) {
+                classWins[k] += other.classWins[k];
+                classPlayed[k] += other.classPlayed[k];
+            }
+            for (int k = 0; k < weaponWins.length; k++) {
+                weaponWins[k] += other.weaponWins[k];
+                weaponPlayed[k] += other.weaponPlayed[k];
+            }
+            for (int b = 0; b < timeToKill.length; b++) timeToKill[b] += other.timeToKill[b];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ozyra.battlearena.tools;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.HeadlessMatch;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.controller.SimulationClock;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Weapon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Command line tool: plays thousands of headless matches on all CPU cores
+// and prints how fast that went and who won.
+//
+// Usage: BatchRunner [matches] [threads] [maxSecondsPerMatch]
+public class BatchRunner {
+
+    static final String[] CLASSES = {"Warrior", "Mage", "Archer"};
+    static final String[] WEAPONS = {"Sword", "Bow", "Magic"};
+
+    // Every combination of class + weapon (9 loadouts)
+    static final int LOADOUTS = CLASSES.length * WEAPONS.length;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int maxSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 120;
+
+        System.out.printf("Playing %d matches on %d threads (max %d s each)%n", matches, threads, maxSeconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long startNanos = System.nanoTime();
+
+        // 1. Split the matches into one chunk per thread
+        List<Future<Tally>> parts = new ArrayList<>();
+        int chunk = (matches + threads - 1) / threads;
+        for (int from = 0; from < matches; from += chunk) {
+            int first = from;
+            int last = Math.min(matches, from + chunk);
+            parts.add(pool.submit(() -> playRange(first, last, maxSeconds)));
+        }
+
+        // 2. Add up the results of all chunks
+        Tally total = new Tally();
+        for (Future<Tally> part : parts) {
+            total.add(part.get());
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        report(total, seconds);
+    }
+
+    // Plays matches number 'from' (inclusive) to 'to' (exclusive) on the current thread
+    static Tally playRange(int from, int to, int maxSeconds) {
+        Tally tally = new Tally();
+
+        for (int m = from; m < to; m++) {
+            // The match number decides the matchup, so every run plays the same matches
+            int left = m % LOADOUTS;
+            int right = (m / LOADOUTS) % LOADOUTS;
+
+            GameCharacter p1 = create(left, "P1", 100);
+            GameCharacter p2 = create(right, "P2", 1100);
+            GameController game = new GameController(1200, 600, p1, p2);
+            InputSource[] sources = {new ScriptedInput(m * 2L), new ScriptedInput(m * 2L + 1)};
+
+            long ticks = HeadlessMatch.play(game, sources, (long) maxSeconds * game.getTickRate());
+
+            tally.matches++;
+            tally.ticks += ticks;
+            GameCharacter winner = game.getWinner();
+            if (winner == p1) tally.wins[left / WEAPONS.length]++;
+            else if (winner == p2) tally.wins[right / WEAPONS.length]++;
+            else tally.draws++;
+            tally.played[left / WEAPONS.length]++;
+            tally.played[right / WEAPONS.length]++;
+        }
+
+        return tally;
+    }
+
+    // Builds the character for loadout number 'loadout' (class * 3 + weapon)
+    static GameCharacter create(int loadout, String name, double x) {
+        String type = CLASSES[loadout / WEAPONS.length];
+        String weapon = WEAPONS[loadout % WEAPONS.length];
+        return GameCharacter.create(type, name, x, 300, Weapon.createWeapon(weapon));
+    }
+
+    private static void report(Tally total, double seconds) {
+        System.out.printf("Matches: %d in %.2f s -> %.0f matches/s%n", total.matches, seconds, total.matches / seconds);
+        System.out.printf("Ticks:   %d -> %.0f ticks/s (%.0fx real time)%n",
+                total.ticks, total.ticks / seconds, total.ticks / seconds / SimulationClock.DEFAULT_TICK_RATE);
+        System.out.printf("Draws (time limit): %d%n", total.draws);
+
+        for (int c = 0; c < CLASSES.length; c++) {
+            double rate = total.played[c] == 0 ? 0 : 100.0 * total.wins[c] / total.played[c];
+            System.out.printf("  %-8s won %6d of %6d appearances (%.1f%%)%n", CLASSES[c], total.wins[c], total.played[c], rate);
+        }
+    }
+
+    // Counters for a group of matches. Every thread fills its own Tally, so no locking is needed.
+    static class Tally {
+        long matches, ticks, draws;
+        final long[] wins = new long[CLASSES.length]; // wins per class
+        final long[] played = new long[CLASSES.length]; // appearances per class
+
+        void add(Tally other) {
+            matches += other.matches;
+            ticks += other.ticks;
+            draws += other.draws;
+            for (int c = 0; c < CLASSES.length; c++) {
+                wins[c] += other.wins[c];
+                played[c] += other.played[c];
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.ozyra.battlearena.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+// A tiny benchmark harness (in the spirit of JMH, without any extra library).
+//
+// For every benchmark it:
+//   1. finds how many operations fit in ~10 ms ("calibration"),
+//   2. runs a few warmup iterations so the JIT compiler can optimize the code,
+//   3. runs the measured iterations and reports the average time per operation,
+// and, like JMH's "gc" profiler, it also reports bytes allocated per operation
+// and how many garbage collections happened while measuring.
+public class Bench {
+
+    // The code under test. It must do 'ops' operations and return some value
+    // computed from them, so the JIT can't remove the work as "unused".
+    public interface Body {
+        long run(long ops);
+    }
+
+    // The numbers measured for one benchmark
+    public static class Result {
+        public final String name;
+        public final String param;
+        public final double nsPerOp; // average time per operation
+        public final double nsPerOpError; // standard deviation between iterations
+        public final double bytesPerOp; // allocated bytes per operation (-1 if the JVM can't tell)
+        public final long gcCount; // garbage collections during measurement
+        public final long gcTimeMs; // time spent in those collections
+        public final int iterations;
+
+        Result(String name, String param, double nsPerOp, double nsPerOpError, double bytesPerOp,
+               long gcCount, long gcTimeMs, int iterations) {
+            this.name = name;
+            this.param = param;
+            this.nsPerOp = nsPerOp;
+            this.nsPerOpError = nsPerOpError;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcTimeMs = gcTimeMs;
+            this.iterations = iterations;
+        }
+
+        public double opsPerSecond() { return 1e9 / nsPerOp; }
+    }
+
+    private static final long CALIBRATION_NANOS = 10_000_000; // 10 ms
+
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationNanos;
+
+    // Results are fed into this field so the JIT has to keep the work
+    private static volatile long sink;
+
+    public Bench(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    // Measures 'body'. 'param' describes the setup (e.g. "projectiles=1000"), it may be empty.
+    public Result measure(String name, String param, Body body) {
+        // 1. Calibration: double the batch size until one batch takes long enough to time it well
+        long batch = 1;
+        while (true) {
+            long t0 = System.nanoTime();
+            sink += body.run(batch);
+            if (System.nanoTime() - t0 >= CALIBRATION_NANOS || batch >= (1L << 40)) break;
+            batch *= 2;
+        }
+
+        // 2. Warmup
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(body, batch);
+        }
+
+        // 3. Measurement
+        long allocatedBefore = allocatedBytes();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMs();
+
+        double[] nsPerOp = new double[measureIterations];
+        long totalOps = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long t0 = System.nanoTime();
+            long ops = runIteration(body, batch);
+            nsPerOp[i] = (double) (System.nanoTime() - t0) / ops;
+            totalOps += ops;
+        }
+
+        long allocatedAfter = allocatedBytes();
+        double bytesPerOp = allocatedBefore < 0 ? -1 : (double) (allocatedAfter - allocatedBefore) / totalOps;
+
+        return new Result(name, param, mean(nsPerOp), stdDev(nsPerOp), bytesPerOp,
+                gcCount() - gcCountBefore, gcTimeMs() - gcTimeBefore, measureIterations);
+    }
+
+    // Runs whole batches until the iteration time is used up, returns the number of operations done
+    private long runIteration(Body body, long batch) {
+        long ops = 0;
+        long start = System.nanoTime();
+        do {
+            sink += body.run(batch);
+            ops += batch;
+        } while (System.nanoTime() - start < iterationNanos);
+        return ops;
+    }
+
+    // Bytes allocated by this thread so far (HotSpot only), or -1
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            if (!threads.isThreadAllocatedMemoryEnabled()) threads.setThreadAllocatedMemoryEnabled(true);
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean gc : collectors) count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    private static long gcTimeMs() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) time += Math.max(0, gc.getCollectionTime());
+        return time;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) sum += v;
+        return sum / values.length;
+    }
+
+    private static double stdDev(double[] values) {
+        if (values.length < 2) return 0;
+        double mean = mean(values);
+        double sum = 0;
+        for (double v : values) sum += (v - mean) * (v - mean);
+        return Math.sqrt(sum / (values.length - 1));
+    }
+}
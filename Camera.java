@@ -0,0 +1,56 @@
+package com.ozyra.battlearena.scenes;
+
+// A window into the world: shows the part of the world that starts at (x, y)
+// inside a rectangle of the screen (the "viewport").
+//
+// When the world is bigger than the viewport the camera moves with the player(s) it follows,
+// but never shows anything outside the world. When the world is smaller it is just centered.
+public class Camera {
+
+    // Where on the screen this camera draws (in screen pixels)
+    private double left, top, width, height;
+
+    // World position shown in the top left corner of the viewport
+    private double x, y;
+
+    public Camera(double left, double top, double width, double height) {
+        setViewport(left, top, width, height);
+    }
+
+    // Moves/resizes the part of the screen this camera draws into
+    public void setViewport(double left, double top, double width, double height) {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+    }
+
+    // Centers the camera on (targetX, targetY), but keeps it inside a world of worldWidth x worldHeight
+    public void follow(double targetX, double targetY, double worldWidth, double worldHeight) {
+        x = clamp(targetX - width / 2, worldWidth - width);
+        y = clamp(targetY - height / 2, worldHeight - height);
+    }
+
+    // If the world is smaller than the view (max < 0) it is centered instead
+    private static double clamp(double value, double max) {
+        if (max < 0) return max / 2;
+        return Math.max(0, Math.min(max, value));
+    }
+
+    // World position -> screen position
+    public double toScreenX(double worldX) { return worldX - x + left; }
+    public double toScreenY(double worldY) { return worldY - y + top; }
+
+    // True if something at world position (wx, wy) that is at most 'radius' big can be seen
+    public boolean sees(double wx, double wy, double radius) {
+        return wx + radius >= x && wx - radius <= x + width && wy + radius >= y && wy - radius <= y + height;
+    }
+
+    // Getters
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getLeft() { return left; }
+    public double getTop() { return top; }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+}
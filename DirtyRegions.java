@@ -0,0 +1,69 @@
+package com.ozyra.battlearena.scenes;
+
+import javafx.scene.canvas.GraphicsContext;
+
+// Remembers which rectangles of a canvas were drawn on this frame,
+// so next frame we only erase those instead of clearing the whole canvas.
+//
+// Rectangles are kept in a plain double array (no objects per rectangle).
+// If more rectangles are drawn than we have room for, we simply remember
+// one big box around all of them instead.
+public class DirtyRegions {
+
+    // Extra border around each rectangle so anti-aliased edges are erased too
+    private static final double PAD = 2;
+
+    private final double[] rects; // x, y, w, h, x, y, w, h, ...
+    private final int maxRects;
+    private int count;
+
+    // Box around everything drawn (used when there are too many rectangles)
+    private double minX, minY, maxX, maxY;
+
+    public DirtyRegions(int maxRects) {
+        this.maxRects = maxRects;
+        this.rects = new double[maxRects * 4];
+        reset();
+    }
+
+    // Marks a rectangle as "something was drawn here"
+    public void add(double x, double y, double w, double h) {
+        // Round outwards to whole pixels
+        double x0 = Math.floor(x - PAD), y0 = Math.floor(y - PAD);
+        double x1 = Math.ceil(x + w + PAD), y1 = Math.ceil(y + h + PAD);
+
+        if (count < maxRects) {
+            int k = count * 4;
+            rects[k] = x0;
+            rects[k + 1] = y0;
+            rects[k + 2] = x1 - x0;
+            rects[k + 3] = y1 - y0;
+        }
+        count++;
+
+        minX = Math.min(minX, x0);
+        minY = Math.min(minY, y0);
+        maxX = Math.max(maxX, x1);
+        maxY = Math.max(maxY, y1);
+    }
+
+    // Erases everything that was marked, and starts a new (empty) list
+    public void clear(GraphicsContext g) {
+        if (count > maxRects) {
+            // Too many small rectangles: one big clear is cheaper
+            g.clearRect(minX, minY, maxX - minX, maxY - minY);
+        } else {
+            for (int i = 0; i < count; i++) {
+                int k = i * 4;
+                g.clearRect(rects[k], rects[k + 1], rects[k + 2], rects[k + 3]);
+            }
+        }
+        reset();
+    }
+
+    private void reset() {
+        count = 0;
+        minX = minY = Double.MAX_VALUE;
+        maxX = maxY = -Double.MAX_VALUE;
+    }
+}
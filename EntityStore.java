@@ -0,0 +1,145 @@
+package com.ozyra.battlearena.model;
+
+import java.util.Arrays;
+
+// Keeps the changing numbers of all characters and bullets of a match in plain arrays, one array per value
+// ("struct of arrays"): all x positions next to each other, all y positions next to each other, and so on.
+//
+// GameCharacter and Projectile objects are only "views": they remember a store and a slot number,
+// and their getters/setters read and write these arrays. Code that handles many bullets at once
+// (moving them, testing hits) can walk straight through the arrays instead of jumping from object
+// to object, which is much kinder to the CPU cache and lets the JIT use SIMD instructions.
+//
+// A bullet's owner is stored as a number (the owner's character slot), not as a reference,
+// so a bullet in a store can only belong to a character of the same store (other owners are stored as "none").
+// A character belongs to one store at a time: on its own while it is created (e.g. in the menu),
+// then the GameController moves it into the store of the match with adopt().
+public class EntityStore {
+
+    // Owner number of a bullet without owner
+    public static final int NO_OWNER = -1;
+
+    // ---- Characters (slot = player index in the match) ----
+    public final double[] charX, charY; // position
+    public final double[] charDirX, charDirY; // facing direction
+    public final int[] charHealth;
+    public final long[] charLastShot; // simulation time (ms) of the last shot
+    public final Weapon[] charWeapon; // shared weapon objects (see WeaponRegistry)
+    private final GameCharacter[] characters; // the view of each slot
+    private int characterCount;
+
+    // ---- Bullets (the ProjectilePool decides which slots are alive) ----
+    public final double[] bulletX, bulletY; // position
+    public final double[] bulletVx, bulletVy; // velocity
+    public final int[] bulletDamage;
+    public final int[] bulletOwner; // character slot of the owner, or NO_OWNER
+    public final int[] bulletId;
+    public final Weapon[] bulletWeapon; // decides how the bullet looks, may be null
+
+    public EntityStore(int maxCharacters, int maxBullets) {
+        charX = new double[maxCharacters];
+        charY = new double[maxCharacters];
+        charDirX = new double[maxCharacters];
+        charDirY = new double[maxCharacters];
+        charHealth = new int[maxCharacters];
+        charLastShot = new long[maxCharacters];
+        charWeapon = new Weapon[maxCharacters];
+        characters = new GameCharacter[maxCharacters];
+
+        bulletX = new double[maxBullets];
+        bulletY = new double[maxBullets];
+        bulletVx = new double[maxBullets];
+        bulletVy = new double[maxBullets];
+        bulletDamage = new int[maxBullets];
+        bulletOwner = new int[maxBullets];
+        bulletId = new int[maxBullets];
+        bulletWeapon = new Weapon[maxBullets];
+        Arrays.fill(bulletOwner, NO_OWNER);
+    }
+
+    // ---- Characters ----
+
+    // Gives a new character a slot (used by the GameCharacter constructor)
+    int addCharacter(GameCharacter c) {
+        if (characterCount == characters.length) throw new IllegalStateException("store is full: " + characters.length + " characters");
+        characters[characterCount] = c;
+        return characterCount++;
+    }
+
+    // Moves a character (with its current values) into this store; its old slot is not used anymore.
+    // Returns its slot here. Characters are adopted in player order, so slot = player index.
+    public int adopt(GameCharacter c) {
+        if (c.store == this) return c.slot;
+
+        int slot = addCharacter(c);
+        charX[slot] = c.getX();
+        charY[slot] = c.getY();
+        charDirX[slot] = c.getDirX();
+        charDirY[slot] = c.getDirY();
+        charHealth[slot] = c.getHealth();
+        charLastShot[slot] = c.getLastShotTime();
+        charWeapon[slot] = c.getWeapon();
+        c.store = this;
+        c.slot = slot;
+        return slot;
+    }
+
+    // Empties the character slots, so the next match can adopt its players into the same columns.
+    // The old characters get a little store of their own again (with their current values),
+    // so they still work and can even be adopted again (e.g. a restart with the same players).
+    public void clearCharacters() {
+        for (int i = 0; i < characterCount; i++) {
+            new EntityStore(1, 0).adopt(characters[i]);
+            characters[i] = null;
+        }
+        characterCount = 0;
+    }
+
+    public GameCharacter character(int slot) { return characters[slot]; }
+    public int getCharacterCount() { return characterCount; }
+
+    // ---- Bullet owners ----
+
+    // The number stored for owner 'c': its slot, or NO_OWNER for null.
+    // An owner from another store is dropped (NO_OWNER): its slot number would mean somebody else here.
+    public int ownerId(GameCharacter c) {
+        if (c == null || c.store != this) return NO_OWNER;
+        return c.slot;
+    }
+
+    // The character behind an owner number (null for NO_OWNER)
+    public GameCharacter owner(int id) {
+        return id == NO_OWNER ? null : characters[id];
+    }
+
+    // ---- Bullets ----
+
+    // Copies every value of bullet slot 'from' into slot 'to' (both in this store)
+    public void copyBullet(int from, int to) {
+        bulletX[to] = bulletX[from];
+        bulletY[to] = bulletY[from];
+        bulletVx[to] = bulletVx[from];
+        bulletVy[to] = bulletVy[from];
+        bulletDamage[to] = bulletDamage[from];
+        bulletOwner[to] = bulletOwner[from];
+        bulletId[to] = bulletId[from];
+        bulletWeapon[to] = bulletWeapon[from];
+    }
+
+    // Forgets the owner and weapon of a bullet slot that is no longer used
+    public void clearBullet(int slot) {
+        bulletOwner[slot] = NO_OWNER;
+        bulletWeapon[slot] = null;
+    }
+
+    // Movement system: moves bullets 0 .. count-1 forward by dt seconds (same math as Projectile.update)
+    public void moveBullets(int count, double dt) {
+        double[] x = bulletX, y = bulletY, vx = bulletVx, vy = bulletVy;
+        for (int i = 0; i < count; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+    }
+
+    public int getBulletCapacity() { return bulletX.length; }
+}
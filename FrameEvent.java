@@ -0,0 +1,32 @@
+package com.ozyra.battlearena.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// A Java Flight Recorder event for every rendered frame.
+// It costs (almost) nothing unless a recording with this event enabled is running,
+// e.g. java -XX:StartFlightRecording:filename=match.jfr ...
+@Name("com.ozyra.battlearena.Frame")
+@Label("Frame")
+@Category("Battle Arena")
+@StackTrace(false)
+public class FrameEvent extends Event {
+
+    @Label("Frame Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long frameNanos;
+
+    @Label("Render Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long renderNanos;
+
+    @Label("Ticks Run")
+    public int ticks;
+
+    @Label("Live Projectiles")
+    public int projectiles;
+}
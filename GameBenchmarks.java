@@ -0,0 +1,473 @@
+package com.ozyra.battlearena.bench;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.GameEvents;
+import com.ozyra.battlearena.controller.HeadlessMatch;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.PlayerInput;
+import com.ozyra.battlearena.controller.ProjectilePool;
+import com.ozyra.battlearena.controller.RenderState;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.controller.StateRing;
+import com.ozyra.battlearena.model.Archer;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Mage;
+import com.ozyra.battlearena.model.Projectile;
+import com.ozyra.battlearena.model.Warrior;
+import com.ozyra.battlearena.model.Weapon;
+import com.ozyra.battlearena.scenes.Camera;
+import com.ozyra.battlearena.scenes.ParticleSystem;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+import java.util.SplittableRandom;
+
+// Benchmarks for the hot paths of the game. Run it before and after a change and compare the files.
+//
+// Usage: GameBenchmarks [-o results.json] [-f filter] [-wi warmup] [-i iterations] [-t iterationMs] [-label text]
+//
+// Results are written as JSON in the same shape JMH uses ("benchmark", "params", "primaryMetric",
+// "secondaryMetrics" with gc.alloc.rate.norm / gc.count / gc.time), so the usual JMH tools can read them.
+public class GameBenchmarks {
+
+    // Live projectile counts used for the update benchmark
+    static final int[] PROJECTILE_COUNTS = {10, 100, 1_000, 10_000, 100_000};
+
+    public static void main(String[] args) throws IOException {
+        // ---- Read command line options ----
+        Path output = Path.of("bench-results.json");
+        String filter = "";
+        String label = "";
+        int warmup = 5, iterations = 10;
+        long iterationMs = 500;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-o" -> output = Path.of(args[i + 1]);
+                case "-f" -> filter = args[i + 1];
+                case "-label" -> label = args[i + 1];
+                case "-wi" -> warmup = Integer.parseInt(args[i + 1]);
+                case "-i" -> iterations = Integer.parseInt(args[i + 1]);
+                case "-t" -> iterationMs = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Bench bench = new Bench(warmup, iterations, iterationMs);
+        List<Bench.Result> results = new ArrayList<>();
+
+        // ---- 1. GameController.tick with N live projectiles ----
+        for (int count : PROJECTILE_COUNTS) {
+            if (!matches("update", filter)) break;
+            GameController game = gameWithProjectiles(count);
+            int[] noInput = new int[2];
+            run(bench, results, "update", "projectiles=" + count, ops -> {
+                for (long i = 0; i < ops; i++) game.tick(noInput);
+                return game.getProjectiles().size();
+            });
+        }
+
+        // ---- 1b. Free-for-all: many players and many bullets (tests the grid broadphase) ----
+        if (matches("updateFreeForAll", filter)) {
+            for (int players : new int[]{2, 100, 500}) {
+                GameController game = freeForAll(players, 10_000);
+                int[] noInput = new int[players];
+                run(bench, results, "updateFreeForAll", "players=" + players, ops -> {
+                    for (long i = 0; i < ops; i++) game.tick(noInput);
+                    return game.getProjectiles().size();
+                });
+            }
+        }
+
+        // ---- 2. Collision test ----
+        if (matches("intersects", filter)) {
+            GameCharacter target = new Warrior("T", 600, 300, Weapon.createWeapon("Sword"));
+            Projectile[] shots = new Projectile[1024];
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < shots.length; i++) {
+                shots[i] = new Projectile(550 + random.nextDouble(100), 250 + random.nextDouble(100), 0, 0, 1, null);
+            }
+            run(bench, results, "intersects", "", ops -> {
+                long hits = 0;
+                for (long i = 0; i < ops; i++) {
+                    if (GameController.intersects(shots[(int) (i & 1023)], target)) hits++;
+                }
+                return hits;
+            });
+        }
+
+        // ---- 3. Creating bullets: into a pool slot vs. 'new' ----
+        if (matches("createProjectile", filter)) {
+            Weapon bow = Weapon.createWeapon("Bow");
+            GameCharacter owner = new Archer("A", 100, 300, bow);
+            Projectile slot = new Projectile();
+            run(bench, results, "createProjectile", "target=slot", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) {
+                    sum += (long) bow.createProjectile(slot, 100, 300, 1, (i & 1), owner).getVx();
+                }
+                return sum;
+            });
+            run(bench, results, "createProjectile", "target=new", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) {
+                    sum += (long) bow.createProjectile(100, 300, 1, (i & 1), owner).getVx();
+                }
+                return sum;
+            });
+        }
+
+        // ---- 4. Weapon lookup by name ----
+        if (matches("createWeapon", filter)) {
+            String[] names = {"Sword", "Bow", "Magic", "Fist"};
+            run(bench, results, "createWeapon", "", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) sum += Weapon.createWeapon(names[(int) (i & 3)]).getDamage();
+                return sum;
+            });
+        }
+
+        // ---- 5. Full tick including reading input from both players ----
+        if (matches("tickWithInput", filter)) {
+            ScriptedMatch match = new ScriptedMatch();
+            run(bench, results, "tickWithInput", "players=2", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) sum += match.step();
+                return sum;
+            });
+        }
+
+        // ---- 5b. Same, publishing game events that reader threads drain at the same time ----
+        // (should cost about the same as tickWithInput: the game never waits for the readers)
+        if (matches("tickWithEvents", filter)) {
+            for (int readers : new int[]{0, 3}) {
+                GameEvents events = new GameEvents(1024);
+                ScriptedMatch match = new ScriptedMatch(events);
+                EventDrain drain = new EventDrain(events, readers);
+                run(bench, results, "tickWithEvents", "readers=" + readers, ops -> {
+                    long sum = 0;
+                    for (long i = 0; i < ops; i++) sum += match.step();
+                    return sum;
+                });
+                drain.stop();
+                System.out.printf(Locale.ROOT, "  events published %d, read %d, dropped %d%n", events.getPublished(), drain.read(), drain.dropped());
+            }
+        }
+
+        // ---- 6. Saving and restoring the whole match (rollback) ----
+        if (matches("State", filter)) {
+            for (int count : new int[]{0, 100, 1_000, 4_000}) {
+                GameController game = gameWithProjectiles(count);
+                StateRing ring = new StateRing(game, 16);
+                ring.save();
+                run(bench, results, "saveState", "projectiles=" + count, ops -> {
+                    for (long i = 0; i < ops; i++) ring.save();
+                    return ring.getNewestTick();
+                });
+                run(bench, results, "restoreState", "projectiles=" + count, ops -> {
+                    for (long i = 0; i < ops; i++) ring.restore(0);
+                    return game.getProjectiles().size();
+                });
+            }
+        }
+
+        // ---- 7. Rollback: go back 8 ticks and simulate them again (one frame's worth of work for rollback netcode) ----
+        if (matches("rollback", filter)) {
+            RollbackMatch match = new RollbackMatch(8);
+            run(bench, results, "rollback", "ticks=8", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) sum += match.rollback();
+                return sum;
+            });
+        }
+
+        // ---- 8. Finding the bullets a camera can see in a big world (RenderState grid vs. looking at every bullet) ----
+        if (matches("cull", filter)) {
+            GameController game = freeForAll(2, 40_000, 60_000, 30_000);
+            RenderState state = new RenderState(game);
+            int[] visible = new int[game.getProjectiles().capacity()];
+            run(bench, results, "cullCopy", "projectiles=40000", ops -> {
+                for (long i = 0; i < ops; i++) state.copyFrom(game, 0);
+                return state.bullets;
+            });
+            run(bench, results, "cull", "view=grid", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) {
+                    double x = (i * 1237) % 58_000, y = (i * 811) % 29_000;
+                    sum += state.visibleBullets(x, y, x + 1200, y + 600, visible);
+                }
+                return sum;
+            });
+            run(bench, results, "cull", "view=scan", ops -> {
+                long sum = 0;
+                for (long i = 0; i < ops; i++) {
+                    double x = (i * 1237) % 58_000, y = (i * 811) % 29_000;
+                    for (int b = 0; b < state.bullets; b++) {
+                        if (state.bulletX[b] >= x && state.bulletX[b] <= x + 1200 && state.bulletY[b] >= y && state.bulletY[b] <= y + 600) sum++;
+                    }
+                }
+                return sum;
+            });
+        }
+
+        // ---- 9. One frame of particles: move them one tick, erase the last frame, draw them into the pixel buffer ----
+        if (matches("particles", filter)) {
+            int[] pixels = new int[1200 * 600];
+            Camera cam = new Camera(0, 0, 1200, 600);
+            cam.follow(600, 300, 1200, 600);
+            for (int count : new int[]{10_000, 50_000}) {
+                ParticleSystem particles = new ParticleSystem(count);
+                // Particles that never die, spread over the screen (they slow down and stay there)
+                for (int k = 0; k < count; k++) {
+                    particles.burst(100 + (k % 1000), 100 + (k % 400), 1, 0, Math.PI, 0, 300, 1 << 30, 1 << 30, 0xFF8C42);
+                }
+                run(bench, results, "particles", "particles=" + count, ops -> {
+                    for (long i = 0; i < ops; i++) {
+                        particles.step(1.0 / 120);
+                        particles.erase(pixels, 1200);
+                        particles.render(pixels, 1200, 600, cam, 0.5, 1.0 / 120);
+                    }
+                    return particles.size();
+                });
+            }
+        }
+
+        write(output, label, results);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static boolean matches(String name, String filter) {
+        return filter.isEmpty() || name.contains(filter);
+    }
+
+    // Runs one benchmark and prints a line about it
+    private static void run(Bench bench, List<Bench.Result> results, String name, String param, Bench.Body body) {
+        Bench.Result r = bench.measure(name, param, body);
+        results.add(r);
+        System.out.printf(Locale.ROOT, "%-18s %-18s %12.1f ns/op  (+- %.1f)  %10.1f B/op  gc=%d (%d ms)%n",
+                r.name, r.param, r.nsPerOp, r.nsPerOpError, r.bytesPerOp, r.gcCount, r.gcTimeMs);
+    }
+
+    // A match with 'count' bullets that never hit anybody and never leave the arena,
+    // so the number of live bullets stays the same for the whole benchmark
+    static GameController gameWithProjectiles(int count) {
+        GameCharacter p1 = new Warrior("P1", 100, 300, Weapon.createWeapon("Sword"));
+        GameCharacter p2 = new Mage("P2", 1100, 300, Weapon.createWeapon("Magic"));
+        GameController game = new GameController(1200, 600, p1, p2, Math.max(count, ProjectilePool.DEFAULT_CAPACITY), 120);
+
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < count; i++) {
+            Projectile slot = game.getProjectiles().acquire();
+            // x between 200 and 1000 keeps them away from both players (who stand at x=100 and x=1100)
+            slot.set(200 + random.nextDouble(800), 20 + random.nextDouble(560), 0, 0, 1, i % 2 == 0 ? p1 : p2);
+        }
+        return game;
+    }
+
+    // 'players' players spread over a big arena plus 'count' bullets that never move.
+    // Nobody gets hit (the bullets stand still), so the setup stays the same during the benchmark.
+    static GameController freeForAll(int players, int count) {
+        return freeForAll(players, count, 6000, 3000);
+    }
+
+    static GameController freeForAll(int players, int count, double width, double height) {
+        SplittableRandom random = new SplittableRandom(11);
+
+        List<GameCharacter> list = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            list.add(new Warrior("P" + i, 100 + random.nextDouble(width - 200), 100 + random.nextDouble(height - 200),
+                    Weapon.createWeapon("Sword")));
+        }
+        GameController game = new GameController(width, height, list, Math.max(count, ProjectilePool.DEFAULT_CAPACITY), 120);
+
+        for (int i = 0; i < count; i++) {
+            double x, y;
+            do { // keep every bullet out of reach of every player
+                x = random.nextDouble(width);
+                y = random.nextDouble(height);
+            } while (nearAnyone(list, x, y));
+            game.getProjectiles().acquire().set(x, y, 0, 0, 1, list.get(i % players));
+        }
+        return game;
+    }
+
+    private static boolean nearAnyone(List<GameCharacter> players, double x, double y) {
+        for (GameCharacter c : players) {
+            double dx = c.getX() - x, dy = c.getY() - y;
+            if (dx * dx + dy * dy <= 4 * GameController.HIT_RADIUS * GameController.HIT_RADIUS) return true;
+        }
+        return false;
+    }
+
+    // Two scripted players fighting; a new match starts when one of them wins
+    static class ScriptedMatch {
+        private final int[] inputs = new int[2];
+        private GameController game;
+        private InputSource[] sources;
+        private long seed;
+        private final GameEvents events; // null = no events
+
+        ScriptedMatch() {
+            this(null);
+        }
+
+        ScriptedMatch(GameEvents events) {
+            this.events = events;
+            reset();
+        }
+
+        private void reset() {
+            GameCharacter p1 = new Warrior("P1", 100, 300, Weapon.createWeapon("Bow"));
+            GameCharacter p2 = new Archer("P2", 1100, 300, Weapon.createWeapon("Sword"));
+            game = new GameController(1200, 600, p1, p2);
+            game.setEvents(events);
+            sources = new InputSource[]{new ScriptedInput(seed++), new ScriptedInput(seed++)};
+        }
+
+        long step() {
+            if (game.isOver()) reset();
+            inputs[0] = sources[0].poll(game, 0);
+            inputs[1] = sources[1].poll(game, 1);
+            game.tick(inputs);
+            return inputs[0] & PlayerInput.SHOOT;
+        }
+    }
+
+    // Reader threads that read all new events every 0.1 ms (like stats, sound and network would)
+    static class EventDrain {
+        private final Thread[] threads;
+        private final long[] read, dropped, damage;
+        private volatile boolean running = true;
+
+        EventDrain(GameEvents events, int readers) {
+            threads = new Thread[readers];
+            read = new long[readers];
+            dropped = new long[readers];
+            damage = new long[readers];
+            for (int r = 0; r < readers; r++) {
+                int me = r;
+                GameEvents.Reader reader = events.newReader();
+                threads[r] = new Thread(() -> {
+                    long n = 0, hp = 0;
+                    while (running) {
+                        if (!reader.poll()) {
+                            LockSupport.parkNanos(100_000);
+                            continue;
+                        }
+                        n++;
+                        if (reader.type() == GameEvents.Type.DAMAGE) hp += reader.value();
+                    }
+                    read[me] = n;
+                    dropped[me] = reader.getDropped();
+                    damage[me] = hp;
+                }, "event-reader-" + r);
+                threads[r].setDaemon(true);
+                threads[r].start();
+            }
+        }
+
+        void stop() {
+            running = false;
+            try {
+                for (Thread t : threads) t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        long read() { long sum = 0; for (long n : read) sum += n; return sum; }
+        long dropped() { long sum = 0; for (long n : dropped) sum += n; return sum; }
+    }
+
+    // A scripted match that is played up to a tick, with its state saved every tick.
+    // rollback() goes back 'depth' ticks and plays them again with the same buttons.
+    static class RollbackMatch {
+        private static final int END = 240; // tick the rollbacks start from (both players are still alive)
+
+        private final GameController game;
+        private final StateRing ring;
+        private final int[][] inputs = new int[END][2];
+        private final int depth;
+
+        RollbackMatch(int depth) {
+            this.depth = depth;
+            GameCharacter p1 = new Warrior("P1", 100, 300, Weapon.createWeapon("Bow"));
+            GameCharacter p2 = new Archer("P2", 1100, 300, Weapon.createWeapon("Sword"));
+            game = new GameController(1200, 600, p1, p2);
+            ring = new StateRing(game, 16);
+            InputSource[] sources = {new ScriptedInput(1), new ScriptedInput(2)};
+
+            for (int t = 0; t < END; t++) {
+                ring.save();
+                inputs[t][0] = sources[0].poll(game, 0);
+                inputs[t][1] = sources[1].poll(game, 1);
+                game.tick(inputs[t]);
+            }
+            ring.save();
+
+            // Playing the same ticks again must give exactly the same state
+            ByteBuffer before = ByteBuffer.allocate(game.getStateSize());
+            game.writeState(before);
+            rollback();
+            ByteBuffer after = ByteBuffer.allocate(game.getStateSize());
+            game.writeState(after);
+            if (!before.flip().equals(after.flip())) throw new IllegalStateException("rollback is not deterministic");
+        }
+
+        long rollback() {
+            ring.restore(END - depth);
+            for (int t = END - depth; t < END; t++) {
+                game.tick(inputs[t]);
+                ring.save();
+            }
+            return game.getProjectiles().size();
+        }
+    }
+
+    // ---- JSON output ----
+
+    private static void write(Path output, String label, List<Bench.Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                Bench.Result r = results.get(i);
+                out.println("  {");
+                out.printf(Locale.ROOT, "    \"benchmark\": \"%s.%s\",%n", GameBenchmarks.class.getName(), r.name);
+                out.printf(Locale.ROOT, "    \"mode\": \"avgt\",%n");
+                out.printf(Locale.ROOT, "    \"label\": \"%s\",%n", escape(label));
+                out.printf(Locale.ROOT, "    \"jdkVersion\": \"%s\",%n", escape(System.getProperty("java.version")));
+                out.printf(Locale.ROOT, "    \"measurementIterations\": %d,%n", r.iterations);
+                out.printf(Locale.ROOT, "    \"params\": {%s},%n", params(r.param));
+                out.printf(Locale.ROOT, "    \"primaryMetric\": {\"score\": %.3f, \"scoreError\": %.3f, \"scoreUnit\": \"ns/op\"},%n",
+                        r.nsPerOp, r.nsPerOpError);
+                out.printf(Locale.ROOT, "    \"secondaryMetrics\": {%n");
+                out.printf(Locale.ROOT, "      \"ops/s\": {\"score\": %.1f, \"scoreUnit\": \"ops/s\"},%n", r.opsPerSecond());
+                out.printf(Locale.ROOT, "      \"gc.alloc.rate.norm\": {\"score\": %.3f, \"scoreUnit\": \"B/op\"},%n", r.bytesPerOp);
+                out.printf(Locale.ROOT, "      \"gc.count\": {\"score\": %d, \"scoreUnit\": \"counts\"},%n", r.gcCount);
+                out.printf(Locale.ROOT, "      \"gc.time\": {\"score\": %d, \"scoreUnit\": \"ms\"}%n", r.gcTimeMs);
+                out.println("    }");
+                out.println(i + 1 < results.size() ? "  }," : "  }");
+            }
+            out.println("]");
+        }
+    }
+
+    // "projectiles=1000" -> "projectiles": "1000"
+    private static String params(String param) {
+        if (param.isEmpty()) return "";
+        int eq = param.indexOf('=');
+        return "\"" + escape(param.substring(0, eq)) + "\": \"" + escape(param.substring(eq + 1)) + "\"";
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -6,25 +6,43 @@ public abstract class GameCharacter {
 
     // 'Protected' means these var can be used by this class and its children
     protected String name;
-    protected double x, y; // position on the screen
-    protected int health;
-    protected Weapon weapon;
     protected CharacterShape shape; // visual styke
 
-    // Direction vector: (1,0) means facing right, (-1,0) means left
-    protected double dirX = 1, dirY = 0;
+    // Everything that changes during a match (position, direction, health, weapon, last shot)
+    // lives in the columns of an EntityStore; this object only knows where (a "view").
+    // Until a GameController adopts it, a character has a little store of its own.
+    EntityStore store;
+    int slot;
 
-    // Timestamp of the last time a bullet was fired
-    protected long lastShotTime = 0;
+    // Means "has not shot yet" (far enough in the past that any cooldown is over)
+    private static final long NEVER = Long.MIN_VALUE / 2;
 
     // Constructor: initializes the common data for any character
     public GameCharacter(String name, double x, double y, int health, Weapon weapon,CharacterShape shape) {
         this.name = name;
-        this.x = x;
-        this.y = y;
-        this.health = health;
-        this.weapon = weapon;
         this.shape = shape;
+        this.store = new EntityStore(1, 0);
+        this.slot = store.addCharacter(this);
+
+        store.charX[slot] = x;
+        store.charY[slot] = y;
+        store.charHealth[slot] = health;
+        store.charWeapon[slot] = weapon;
+        // Direction vector: (1,0) means facing right, (-1,0) means left
+        store.charDirX[slot] = 1;
+        store.charDirY[slot] = 0;
+        // Simulation time (ms) of the last time a bullet was fired
+        store.charLastShot[slot] = NEVER;
+    }
+
+    // This helper creates a character from its class name ("Warrior", "Mage" or "Archer"),
+    // so the menu, the batch runner and replays all build players the same way
+    public static GameCharacter create(String type, String name, double x, double y, Weapon weapon) {
+        return switch (type) {
+            case "Mage" -> new Mage(name, x, y, weapon);
+            case "Archer" -> new Archer(name, x, y, weapon);
+            default -> new Warrior(name, x, y, weapon); // Default to Warrior
+        };
     }
 
     public CharacterShape getShape() {
@@ -32,53 +50,73 @@ public abstract class GameCharacter {
     }
 
     // Checks if enough time has passed since the last shot to fire again
+    // 'now' is the simulation time in ms (GameController.getTimeMs()), not the wall clock
     public boolean canShoot(long now) {
         // Current time minus last shot time must be greater than the weapon's cooldown
-        return now - lastShotTime >= weapon.getCooldownMs();
+        return now - getLastShotTime() >= getWeapon().getCooldownMs();
     }
 
     // Handles the shooting logic
+    // (For spread weapons this only returns the first bullet, use GameController.fire to get all of them)
     public Projectile shoot(long now) {
         // 1. check if weapon is ready
         if (!canShoot(now)) return null;
         // 2. update the last shot time to present (resetting the cooldown)
-        lastShotTime = now;
+        setLastShotTime(now);
         // 3. Create and return the actual bullet object
-        return weapon.createProjectile(x, y, dirX, dirY, this);
+        return getWeapon().createProjectile(getX(), getY(), getDirX(), getDirY(), this);
+    }
+
+    // Same as shoot(now), but writes the bullet into an existing object (a pool slot)
+    // instead of creating a new one. Returns false if the weapon is still cooling down.
+    public boolean shoot(long now, Projectile into) {
+        if (!canShoot(now)) return false;
+        setLastShotTime(now);
+        getWeapon().createProjectile(into, getX(), getY(), getDirX(), getDirY(), this);
+        return true;
     }
 
     // Reduces health when hit
     public void takeDamage(int dmg) {
         // Math.max(0,..) ensures health never goes below 0
-        health = Math.max(0, health - dmg);
+        store.charHealth[slot] = Math.max(0, getHealth() - dmg);
     }
 
     // simple check to see if the player has lost
-    public boolean isDead() { return health <= 0; }
+    public boolean isDead() { return getHealth() <= 0; }
 
     // updates which way the character is facing (used for shooting direction)
     public void setDirection(double dx, double dy) {
-        this.dirX = dx;
-        this.dirY = dy;
+        store.charDirX[slot] = dx;
+        store.charDirY[slot] = dy;
     }
 
     // swaps the current weapon for a new one
+    // Picking the weapon you already hold does nothing (holding the weapon key must not reset the cooldown)
     public void setWeapon(Weapon weapon) {
-    	 this.lastShotTime = 0; // reset cooldown so they can shoot the new weapon immediately
-        this.weapon = weapon;
+        if (weapon == getWeapon()) return;
+    	 setLastShotTime(NEVER); // reset cooldown so they can shoot the new weapon immediately
+        store.charWeapon[slot] = weapon;
     }
 
     //Getters and Setter
     // Allow other classes to read/change values
     public String getName() { return name; }
-    public int getHealth() { return health; }
-    public double getX() { return x; }
-    public double getY() { return y; }
-    public double getDirX() { return dirX; }
-    public double getDirY() { return dirY; }
-    public Weapon getWeapon() { return weapon; }
-
-    public void setX(double x) { this.x = x; }
-    public void setY(double y) { this.y = y; }
+    public int getHealth() { return store.charHealth[slot]; }
+    public double getX() { return store.charX[slot]; }
+    public double getY() { return store.charY[slot]; }
+    public double getDirX() { return store.charDirX[slot]; }
+    public double getDirY() { return store.charDirY[slot]; }
+    public Weapon getWeapon() { return store.charWeapon[slot]; }
+    public long getLastShotTime() { return store.charLastShot[slot]; }
+
+    public void setX(double x) { store.charX[slot] = x; }
+    public void setY(double y) { store.charY[slot] = y; }
+    public void setHealth(int health) { store.charHealth[slot] = health; }
+    public void setLastShotTime(long lastShotTime) { store.charLastShot[slot] = lastShotTime; }
+
+    // Where the values are kept (see EntityStore)
+    public EntityStore getStore() { return store; }
+    public int getSlot() { return slot; }
 }
 
@@ -0,0 +1,271 @@
+package com.ozyra.battlearena.net;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.ProjectilePool;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Projectile;
+import com.ozyra.battlearena.model.WeaponRegistry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+
+import static com.ozyra.battlearena.net.NetProtocol.*;
+
+// Plays on a GameServer from another computer (or another thread, for testing over loopback).
+//
+// The client keeps a copy of the game (getGame()) that is never ticked by itself:
+// the players are copied from the server's snapshots, and the bullets are created from the
+// "fired" events and then moved here exactly like the server moves them.
+// The copy can be drawn and read by bots like a normal GameController.
+//
+// Call update() regularly (e.g. once per frame) and sendInput(...) with the player's buttons.
+// Nothing here ever waits for the network. All methods must be called from the same thread.
+public class GameClient implements AutoCloseable {
+
+    private static final long HELLO_EVERY_NANOS = 100_000_000L; // resend HELLO until the server answers
+
+    private final DatagramChannel channel;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(MAX_PACKET);
+
+    private GameController game; // copy of the server's game, null until WELCOME arrived
+    private int player = -1; // our player number
+    private long lastHello;
+    private long bytesReceived;
+
+    // ---- Snapshots ----
+    private int latestTick = -1; // newest snapshot we have
+    private int latestEventEnd; // how many bullet events existed at that snapshot
+    private final int[] histTick = new int[HISTORY];
+    private float[][] histX, histY;
+    private byte[][] histDir, histWeapon;
+    private int[][] histHealth;
+
+    // ---- Bullet events (ring buffer like on the server) ----
+    private final byte[] evKind = new byte[EVENT_CAPACITY];
+    private final int[] evTick = new int[EVENT_CAPACITY];
+    private final int[] evId = new int[EVENT_CAPACITY];
+    private final byte[] evWeapon = new byte[EVENT_CAPACITY];
+    private final byte[] evOwner = new byte[EVENT_CAPACITY];
+    private final double[] evX = new double[EVENT_CAPACITY], evY = new double[EVENT_CAPACITY];
+    private final double[] evVx = new double[EVENT_CAPACITY], evVy = new double[EVENT_CAPACITY];
+    private int receivedSeq; // events 0 .. receivedSeq-1 arrived (without gaps)
+    private int appliedSeq; // events already applied to the bullets
+    private int simTick; // ticks the bullets have been moved
+
+    public GameClient(InetSocketAddress server) throws IOException {
+        channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.connect(server); // only accept packets from the server
+    }
+
+    // Reads everything the server sent and brings the copy of the game up to date
+    public void update() throws IOException {
+        if (game == null && System.nanoTime() - lastHello > HELLO_EVERY_NANOS) {
+            lastHello = System.nanoTime();
+            out.clear();
+            out.put(HELLO);
+            channel.write(out.flip());
+        }
+
+        try {
+            int read;
+            while ((read = channel.read(in.clear())) > 0) {
+                bytesReceived += read;
+                in.flip();
+                byte type = in.get();
+                if (type == WELCOME && game == null) onWelcome();
+                else if (type == SNAPSHOT && game != null) onSnapshot();
+            }
+        } catch (PortUnreachableException e) {
+            // The server isn't running (yet): keep saying HELLO
+        }
+
+        if (game != null) moveBullets();
+    }
+
+    // Sends our buttons (PlayerInput bits) and what we have received so far
+    public void sendInput(int buttons) throws IOException {
+        if (game == null) return;
+        out.clear();
+        out.put(INPUT);
+        out.putInt(latestTick);
+        out.putInt(receivedSeq);
+        out.putInt(buttons);
+        channel.write(out.flip());
+    }
+
+    private void onWelcome() {
+        player = in.get();
+        game = getMatch(in);
+
+        int players = game.getPlayers().size();
+        Arrays.fill(histTick, -1);
+        histX = new float[HISTORY][players];
+        histY = new float[HISTORY][players];
+        histDir = new byte[HISTORY][players];
+        histWeapon = new byte[HISTORY][players];
+        histHealth = new int[HISTORY][players];
+    }
+
+    private void onSnapshot() {
+        int tick = in.getInt();
+        int baseTick = in.getInt();
+        int eventEnd = in.getInt();
+        int firstSeq = in.getInt();
+
+        // 1. Players (only if this snapshot is newer than what we have)
+        int players = game.getPlayers().size();
+        int baseSlot = baseTick >= 0 ? baseTick % HISTORY : -1;
+        if (baseSlot >= 0 && histTick[baseSlot] != baseTick) return; // we don't have the base anymore, wait for the next one
+        boolean newer = tick > latestTick;
+        int slot = tick % HISTORY;
+
+        for (int p = 0; p < players; p++) {
+            int mask = in.get();
+            float x = (mask & HAS_X) != 0 ? in.getFloat() : histX[baseSlot][p];
+            float y = (mask & HAS_Y) != 0 ? in.getFloat() : histY[baseSlot][p];
+            byte dir = (mask & HAS_DIR) != 0 ? in.get() : histDir[baseSlot][p];
+            int health = (mask & HAS_HEALTH) != 0 ? (int) getVarint(in) : histHealth[baseSlot][p];
+            byte weapon = (mask & HAS_WEAPON) != 0 ? in.get() : histWeapon[baseSlot][p];
+
+            if (newer) {
+                histX[slot][p] = x;
+                histY[slot][p] = y;
+                histDir[slot][p] = dir;
+                histHealth[slot][p] = health;
+                histWeapon[slot][p] = weapon;
+            }
+        }
+        if (newer) {
+            histTick[slot] = tick;
+            latestTick = tick;
+            latestEventEnd = eventEnd;
+            applyPlayers(slot);
+        }
+
+        // 2. Bullet events: keep the ones that continue our list without a gap
+        int count = in.getShort();
+        for (int k = 0; k < count; k++) {
+            int seq = firstSeq + k;
+            byte kind = in.get();
+            int eventTick = tick - (int) getVarint(in);
+            int id = (int) getVarint(in);
+            int i = seq & (EVENT_CAPACITY - 1);
+            boolean keep = seq == receivedSeq;
+            if (keep) {
+                evKind[i] = kind;
+                evTick[i] = eventTick;
+                evId[i] = id;
+            }
+            if (kind == FIRED) {
+                double x = in.getDouble(), y = in.getDouble(), vx = in.getDouble(), vy = in.getDouble();
+                byte weapon = in.get(), owner = in.get();
+                if (keep) {
+                    evX[i] = x;
+                    evY[i] = y;
+                    evVx[i] = vx;
+                    evVy[i] = vy;
+                    evWeapon[i] = weapon;
+                    evOwner[i] = owner;
+                }
+            }
+            if (keep) receivedSeq++;
+        }
+    }
+
+    private void applyPlayers(int slot) {
+        for (int p = 0; p < game.getPlayers().size(); p++) {
+            GameCharacter c = game.getPlayer(p);
+            c.setX(histX[slot][p]);
+            c.setY(histY[slot][p]);
+            c.setDirection(unpackDirX(histDir[slot][p]), unpackDirY(histDir[slot][p]));
+            c.setHealth(histHealth[slot][p]);
+            int weapon = histWeapon[slot][p];
+            if (weapon >= 0 && weapon < WeaponRegistry.count()) c.setWeapon(WeaponRegistry.byId(weapon));
+        }
+    }
+
+    // Moves our bullets tick by tick up to the newest snapshot, in the same order as GameController.tick:
+    // new bullets of the tick, move everything, remove the ones that hit somebody or left the arena.
+    private void moveBullets() {
+        ProjectilePool pool = game.getProjectiles();
+        double dt = game.getTickSeconds();
+
+        while (simTick < latestTick && eventsKnown(simTick)) {
+            // 1. Bullets fired in this tick
+            while (appliedSeq < receivedSeq && eventAt(appliedSeq) == simTick
+                    && evKind[appliedSeq & (EVENT_CAPACITY - 1)] == FIRED) {
+                spawn(pool, appliedSeq & (EVENT_CAPACITY - 1));
+                appliedSeq++;
+            }
+
+            // 2. Move
+            for (int i = 0, n = pool.size(); i < n; i++) {
+                pool.get(i).update(dt);
+            }
+
+            // 3. Hits of this tick
+            while (appliedSeq < receivedSeq && eventAt(appliedSeq) == simTick) {
+                remove(pool, evId[appliedSeq & (EVENT_CAPACITY - 1)]);
+                appliedSeq++;
+            }
+
+            // 4. Off the screen
+            for (int i = 0; i < pool.size(); ) {
+                if (pool.get(i).isOffScreen(game.getWidth(), game.getHeight())) pool.remove(i);
+                else i++;
+            }
+
+            simTick++;
+        }
+    }
+
+    // True if we have every bullet event of tick 't' (either all events up to the newest snapshot,
+    // or at least one event from a later tick, which always comes after the events of 't')
+    private boolean eventsKnown(int t) {
+        return receivedSeq >= latestEventEnd || (receivedSeq > 0 && eventAt(receivedSeq - 1) > t);
+    }
+
+    private int eventAt(int seq) {
+        return evTick[seq & (EVENT_CAPACITY - 1)];
+    }
+
+    private void spawn(ProjectilePool pool, int i) {
+        Projectile p = pool.acquire();
+        if (p == null) return;
+
+        GameCharacter owner = evOwner[i] >= 0 ? game.getPlayer(evOwner[i]) : null;
+        int weapon = evWeapon[i];
+        p.set(evX[i], evY[i], evVx[i], evVy[i], 0, owner,
+                weapon >= 0 && weapon < WeaponRegistry.count() ? WeaponRegistry.byId(weapon) : null);
+        p.setId(evId[i]);
+    }
+
+    // Removes the bullet with this id (it hit somebody)
+    private void remove(ProjectilePool pool, int id) {
+        for (int i = 0; i < pool.size(); i++) {
+            if (pool.get(i).getId() == id) {
+                pool.remove(i);
+                return;
+            }
+        }
+    }
+
+    // The copy of the game (null until the server let us in)
+    public GameController getGame() { return game; }
+    public boolean isConnected() { return game != null; }
+    public int getPlayer() { return player; }
+    public int getServerTick() { return latestTick; }
+    public int getSimulatedTick() { return simTick; }
+    public long getBytesReceived() { return bytesReceived; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -1,106 +1,524 @@
 package com.ozyra.battlearena.controller;
 
+import com.ozyra.battlearena.metrics.GameMetrics;
+import com.ozyra.battlearena.model.EntityStore;
 import com.ozyra.battlearena.model.GameCharacter;
 import com.ozyra.battlearena.model.Projectile;
-import javafx.animation.AnimationTimer;
+import com.ozyra.battlearena.model.Weapon;
+import com.ozyra.battlearena.model.WeaponRegistry;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
-import java.util.function.Consumer;
 
+// The game "engine": all the rules of a match, in plain Java.
+// It does NOT know about JavaFX, windows or keyboards. Every call to tick(...) moves the match
+// forward by one fixed step using the buttons each player is holding (see PlayerInput).
+// GameLoop drives it in real time for the window, but it can also be run headless as fast as the CPU allows.
 public class GameController {
 
+    // Movement speed in pixels per second
+    public static final double PLAYER_SPEED = 200;
+
+    // Players can't walk closer than this to the edge of the arena
+    private static final double MARGIN = 20;
+
+    // A bullet hits a player when it comes closer than this (in pixels) to his center
+    public static final double HIT_RADIUS = 25;
+
+    // With this many players or fewer, simply testing every player is faster than using the grid
+    private static final int BRUTE_FORCE_PLAYERS = 8;
+
     private final double width, height; // Dimensions of game world
-    private final GameCharacter p1, p2; // Game players
-    private final List<Projectile> projectiles = new ArrayList<>(); // List to store all active bullets in the game
-    private AnimationTimer timer; // Timers that runs the game loop
+    private List<GameCharacter> players; // Game players (index 0 = P1, 1 = P2, ...)
+    private GameCharacter[] playerArray; // same players, as an array for the hot loops
+    private final EntityStore store; // the values of the players and bullets, one array per value (slot = player index)
+    private final SpatialGrid grid; // finds the players near a bullet quickly (only used for big matches)
+    private final ProjectilePool projectiles; // Pool that stores all active bullets in the game
+    private final int tickRate; // simulation steps per second
+    private final double tickSeconds; // length of one step
+    private long tick; // number of steps simulated so far
+    private GameMetrics metrics; // where phase timings go, null = not measured
+    private ProjectileListener listener; // told about new bullets and hits, null = nobody
+    private GameEvents events; // shots, damage, deaths, weapon swaps and the end of the match go here, null = nowhere
+    private int nextProjectileId; // id of the next bullet that is fired
+    private double hitTime; // set by findHit: when in the step the bullet touched the player (0..1)
+    private final boolean[] near; // set by markNearBullets: bullet i may have touched a player this step
+    private WeaponTable weapons = new WeaponTable(); // numbers of the weapons in saved states (shared with copies)
 
     // Constructor-> initialize the controller with map size and players
     public GameController(double width, double height, GameCharacter p1, GameCharacter p2) {
+        this(width, height, p1, p2, ProjectilePool.DEFAULT_CAPACITY, SimulationClock.DEFAULT_TICK_RATE);
+    }
+
+    // Same as above, but lets us choose how many bullets can be alive at the same time
+    // and how many simulation steps make up one second
+    public GameController(double width, double height, GameCharacter p1, GameCharacter p2, int maxProjectiles, int tickRate) {
+        this(width, height, List.of(p1, p2), maxProjectiles, tickRate);
+    }
+
+    // Any number of players (free-for-all). With exactly 2 players each one keeps to his own half.
+    public GameController(double width, double height, List<GameCharacter> players, int maxProjectiles, int tickRate) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        if (players.size() < 2) throw new IllegalArgumentException("a match needs at least 2 players: " + players.size());
+
         this.width = width;
         this.height = height;
-        this.p1 = p1;
-        this.p2 = p2;
+        this.players = List.copyOf(players);
+        this.playerArray = this.players.toArray(new GameCharacter[0]);
+        // The players move into the columns of this match, in order, so their slot is their player index
+        this.store = new EntityStore(playerArray.length, Math.max(1, maxProjectiles));
+        for (GameCharacter c : playerArray) store.adopt(c);
+        // Cells as wide as a hit circle: a bullet only ever has to look at the 2x2 cells around it
+        this.grid = new SpatialGrid(width, height, 2 * HIT_RADIUS, players.size());
+        this.projectiles = new ProjectilePool(store);
+        this.near = new boolean[projectiles.capacity()];
+        this.tickRate = tickRate;
+        this.tickSeconds = 1.0 / tickRate;
     }
 
-    // Starts the game loop
-    // lets the scene know when to redraw screen
-    public void start(Consumer<Double> onUpdate) {
-        timer = new AnimationTimer() {
-            long last = 0; // Tracks the time of the previous frame
+    // Starts a new match in this controller with new players (as many as before), so the store, the bullet pool
+    // and the grid are reused instead of being made again. Everything else is as if the controller was new.
+    public void restart(List<GameCharacter> newPlayers) {
+        if (newPlayers.size() != playerArray.length) {
+            throw new IllegalArgumentException("restart needs " + playerArray.length + " players: " + newPlayers.size());
+        }
 
-            @Override
-            public void handle(long now) {
-                if (last == 0) { // First frame setup
-                    last = now;
-                    return;
-                }
+        projectiles.clear();
+        store.clearCharacters();
+        players = List.copyOf(newPlayers);
+        playerArray = players.toArray(new GameCharacter[0]);
+        for (GameCharacter c : playerArray) store.adopt(c);
+        tick = 0;
+        nextProjectileId = 0;
+    }
 
-                // Calc delta time (dt): time passed since the last frame in seconds
-                // ensures movement is smooth regardless of computer speed
-                double dt = (now - last) / 1e9;
+    // Runs ONE simulation step.
+    // inputs[i] = buttons held by player i (PlayerInput bits)
+    public void tick(int[] inputs) {
+        if (isOver()) return; // Nothing moves after the match is decided
 
-                update(dt); // updates game logic
-                onUpdate.accept(dt); // tell the view to draw the new state
-                last = now; // Reset time for next frame
-            }
-        };
-        timer.start(); // Activate the timer
+        GameMetrics m = metrics;
+        long t0 = m == null ? 0 : System.nanoTime();
+
+        // 1. Players move, switch weapons and shoot
+        // In a 1 vs 1 match player 1 stays on the left half, player 2 on the right half
+        boolean duel = playerArray.length == 2;
+        for (int i = 0; i < playerArray.length; i++) {
+            GameCharacter c = playerArray[i];
+            if (c.isDead()) continue;
+
+            double minX = duel && i == 1 ? width / 2 : MARGIN;
+            double maxX = duel && i == 0 ? width / 2 : width - MARGIN;
+            applyInput(c, inputs[i], minX, maxX);
+        }
+        long t1 = m == null ? 0 : System.nanoTime();
+
+        // 2. Bullets fly
+        moveProjectiles(tickSeconds);
+        long t2 = m == null ? 0 : System.nanoTime();
+
+        // 3. Sort the players into the grid at their new positions, then find the hits
+        if (playerArray.length > BRUTE_FORCE_PLAYERS) grid.rebuild(players);
+        collide();
+
+        // 4. This tick decided the match (the next ones return right away, so this is published only once)
+        if (events != null && isOver()) {
+            GameCharacter winner = getWinner();
+            if (winner == null) events.publish(GameEvents.Type.MATCH_OVER, tick, -1, 0, 0, 0, 0);
+            else events.publish(GameEvents.Type.MATCH_OVER, tick, indexOf(winner), 0, 0, winner.getX(), winner.getY());
+        }
+
+        tick++;
+
+        if (m != null) {
+            long t3 = System.nanoTime();
+            m.record(GameMetrics.Phase.INPUT, t1 - t0);
+            m.record(GameMetrics.Phase.SIMULATION, t2 - t1);
+            m.record(GameMetrics.Phase.COLLISION, t3 - t2);
+            m.record(GameMetrics.Phase.TICK, t3 - t0);
+            m.setLiveProjectiles(projectiles.size());
+        }
+    }
+
+    // Moves one player according to the buttons he is holding
+    // minX/maxX keep him on his own side of the arena
+    private void applyInput(GameCharacter c, int input, double minX, double maxX) {
+        double step = PLAYER_SPEED * tickSeconds;
+
+        // ---- Movement ----
+        // Math.max/min ensures they cannot walk off the screen
+        // The last pressed direction wins, it is also the direction the player shoots in
+        if (PlayerInput.has(input, PlayerInput.UP))    { c.setY(Math.max(MARGIN, c.getY() - step)); c.setDirection(0, -1); }
+        if (PlayerInput.has(input, PlayerInput.DOWN))  { c.setY(Math.min(height - MARGIN, c.getY() + step)); c.setDirection(0, 1); }
+        if (PlayerInput.has(input, PlayerInput.LEFT))  { c.setX(Math.max(minX, c.getX() - step)); c.setDirection(-1, 0); }
+        if (PlayerInput.has(input, PlayerInput.RIGHT)) { c.setX(Math.min(maxX, c.getX() + step)); c.setDirection(1, 0); }
+
+        // ---- Shooting ----
+        if (PlayerInput.has(input, PlayerInput.SHOOT)) fire(c, getTimeMs());
+
+        // ---- Weapon switching ----
+        // The weapon keys pick the first three weapons of the registry (a reference swap, nothing is created)
+        Weapon before = c.getWeapon();
+        if (PlayerInput.has(input, PlayerInput.WEAPON_1)) c.setWeapon(WeaponRegistry.forSlot(0));
+        if (PlayerInput.has(input, PlayerInput.WEAPON_2)) c.setWeapon(WeaponRegistry.forSlot(1));
+        if (PlayerInput.has(input, PlayerInput.WEAPON_3)) c.setWeapon(WeaponRegistry.forSlot(2));
+        if (events != null && c.getWeapon() != before) {
+            events.publish(GameEvents.Type.WEAPON, tick, indexOf(c), before.getId(), c.getWeapon().getId(), c.getX(), c.getY());
+        }
     }
 
-    // Stops the game loop "when game over"
-    public void stop() {
-        if (timer != null) timer.stop();
+    // Moves every bullet based on its speed (one straight pass over the position and velocity columns)
+    private void moveProjectiles(double dt) {
+        store.moveBullets(projectiles.size(), dt);
     }
 
-    // Main game logic: updates bullets and checks for collisions
-    private void update(double dt) {
-        // Iterator is used to safely remove items from a list while looping through it
-        Iterator<Projectile> it = projectiles.iterator();
+    // Main game logic: checks every bullet for hits and removes the ones that are used up
+    // Works on the columns of the store: positions, velocities and owners are read straight from the arrays
+    private void collide() {
+        EntityStore s = store;
+        double dt = tickSeconds;
 
-        while (it.hasNext()) {
-            Projectile p = it.next();
-            p.update(dt); // Move the projectile based on its speed
+        // Few players: first a quick pass that marks the bullets that came near anybody,
+        // only those get the exact test below (with many players the grid does this job)
+        boolean broadPhase = playerArray.length <= BRUTE_FORCE_PLAYERS;
+        if (broadPhase) markNearBullets(projectiles.size(), dt);
 
-            // Check if player 1 gets hit by a bullet that is NOT owned by him
-            if (p.getOwner() != p1 && intersects(p, p1)) {
-                p1.takeDamage(p.getDamage()); // Apply damage
-                it.remove(); // Remove the bullet
-                continue; // Skip to next bullet
-            }
+        // We loop with an index because the pool removes bullets by swapping in the last one.
+        // After a removal 'i' stays the same, so the swapped-in bullet is checked too.
+        // (its 'near' mark is moved along with it)
+        int i = 0;
 
-            // Check if player 2 gets hit by a bullet that is NOT owned by him
-            if (p.getOwner() != p2 && intersects(p, p2)) {
-                p2.takeDamage(p.getDamage()); //Apply damage
-                it.remove(); // Remove the bullet
+        while (i < projectiles.size()) {
+            // Check if a player gets hit by a bullet that is NOT owned by him
+            int hit = broadPhase && !near[i] ? -1 : findHit(i, dt);
+            if (hit >= 0) {
+                Projectile p = projectiles.get(i);
+                GameCharacter target = playerArray[hit];
+                p.update(-(1 - hitTime) * dt); // put the bullet back where it touched the player
+                if (listener != null) listener.projectileHit(p, target);
+                target.takeDamage(s.bulletDamage[i]); // Apply damage
+                if (events != null) {
+                    int shooter = s.bulletOwner[i]; // player index or NO_OWNER (-1)
+                    events.publish(GameEvents.Type.DAMAGE, tick, hit, shooter, s.bulletDamage[i], s.bulletX[i], s.bulletY[i]);
+                    if (target.isDead()) events.publish(GameEvents.Type.DEATH, tick, hit, shooter, 0, target.getX(), target.getY());
+                }
+                projectiles.remove(i); // Remove the bullet
+                near[i] = near[projectiles.size()];
                 continue; // Skip to next bullet
             }
 
             //Remove bullets that fly of the screen to save memory
-            if (p.isOffScreen(width, height)) {
-                it.remove();
+            double x = s.bulletX[i], y = s.bulletY[i];
+            if (x < 0 || x > width || y < 0 || y > height) {
+                projectiles.remove(i);
+                near[i] = near[projectiles.size()];
+                continue;
+            }
+
+            i++;
+        }
+    }
+
+    // Broad phase for few players: one straight pass over the bullet columns per living player,
+    // with no objects and no branches, so the JIT can keep it tight (and vectorize parts of it).
+    // A bullet is marked if the box around the line it flew this step, grown by the hit circle, contains the player.
+    // That is never less than the exact test in findHit, only more.
+    private void markNearBullets(int n, double dt) {
+        EntityStore s = store;
+        double[] bx = s.bulletX, by = s.bulletY, vx = s.bulletVx, vy = s.bulletVy;
+        boolean[] mark = near;
+        Arrays.fill(mark, 0, n, false);
+
+        double half = dt / 2;
+        for (int p = 0; p < playerArray.length; p++) {
+            if (s.charHealth[p] <= 0) continue;
+            double px = s.charX[p], py = s.charY[p];
+
+            for (int i = 0; i < n; i++) {
+                // middle of the line this step, and half its size
+                double mx = bx[i] - vx[i] * half, my = by[i] - vy[i] * half;
+                double rx = Math.abs(vx[i]) * half + HIT_RADIUS, ry = Math.abs(vy[i]) * half + HIT_RADIUS;
+                mark[i] |= Math.abs(mx - px) <= rx & Math.abs(my - py) <= ry;
             }
         }
     }
 
+    // Finds the player that bullet number 'i' hit during the last step (dt seconds): his index, or -1.
+    // The whole line the bullet flew along this step is tested, not only where it ended up,
+    // so a fast bullet (or a low tick rate) can't jump over a player between two ticks.
+    // If it crossed several players, the one it reached first takes it (same moment: lowest index, P1 before P2).
+    // When a player is found, hitTime says when in the step it was touched (0 = start, 1 = end).
+    private int findHit(int i, double dt) {
+        EntityStore s = store;
+        double x1 = s.bulletX[i], y1 = s.bulletY[i];
+        double x0 = x1 - s.bulletVx[i] * dt, y0 = y1 - s.bulletVy[i] * dt; // where the bullet was before this step
+        int owner = s.bulletOwner[i]; // the owner's player index (or NO_OWNER)
+
+        int best = -1;
+        double bestTime = Double.MAX_VALUE;
+
+        // Few players: just test all of them
+        double[] cx = s.charX, cy = s.charY;
+        if (playerArray.length <= BRUTE_FORCE_PLAYERS) {
+            int[] health = s.charHealth;
+            for (int index = 0; index < health.length; index++) {
+                if (index == owner || health[index] <= 0) continue;
+
+                double t = timeOfImpact(x0, y0, x1, y1, cx[index], cy[index], HIT_RADIUS);
+                if (t >= 0 && t < bestTime) {
+                    best = index;
+                    bestTime = t;
+                }
+            }
+        } else {
+            // Many players: only the grid cells that the line (grown by the hit circle) touches are checked
+            int col0 = grid.col(Math.min(x0, x1) - HIT_RADIUS), col1 = grid.col(Math.max(x0, x1) + HIT_RADIUS);
+            int row0 = grid.row(Math.min(y0, y1) - HIT_RADIUS), row1 = grid.row(Math.max(y0, y1) + HIT_RADIUS);
+
+            for (int row = row0; row <= row1; row++) {
+                for (int col = col0; col <= col1; col++) {
+                    for (int k = grid.start(col, row), end = grid.end(col, row); k < end; k++) {
+                        int index = grid.item(k);
+                        if (index == owner || s.charHealth[index] <= 0) continue; // dead players don't stop bullets
+
+                        double t = timeOfImpact(x0, y0, x1, y1, cx[index], cy[index], HIT_RADIUS);
+                        if (t >= 0 && (t < bestTime || (t == bestTime && index < best))) {
+                            best = index;
+                            bestTime = t;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (best >= 0) hitTime = bestTime;
+        return best;
+    }
+
     // Simple collision detection (Circle based)
     // Checks if the distance between a bullet and a player is small enough to hit
-    private boolean intersects(Projectile p, GameCharacter c) {
+    public static boolean intersects(Projectile p, GameCharacter c) {
         double dx = p.getX() - c.getX();
         double dy = p.getY() - c.getY();
         // Check if distance squared is less than radius squared (25 pixels)
-        return dx * dx + dy * dy <= 25 * 25;
+        return dx * dx + dy * dy <= HIT_RADIUS * HIT_RADIUS;
     }
 
-    // Adds a new bullet to the game (called when a player shoots)
+    // Swept collision: a point moving in a straight line from (x0, y0) to (x1, y1) against a circle.
+    // Returns when the point first touches the circle (0 = at the start, 1 = at the end), or -1 if it never does.
+    // Math: solve |start + t * move - center|^2 = radius^2 for t, and take the smaller answer.
+    public static double timeOfImpact(double x0, double y0, double x1, double y1, double cx, double cy, double radius) {
+        double fx = x0 - cx, fy = y0 - cy; // from the center to the start
+        double c = fx * fx + fy * fy - radius * radius;
+        if (c <= 0) return 0; // already touching at the start
+
+        double dx = x1 - x0, dy = y1 - y0; // the move
+        double a = dx * dx + dy * dy;
+        double b = fx * dx + fy * dy; // (half of the usual 'b')
+        if (a == 0 || b >= 0) return -1; // not moving, or moving away from the circle
+
+        double disc = b * b - a * c;
+        if (disc < 0) return -1; // the line passes beside the circle
+
+        double t = (-b - Math.sqrt(disc)) / a;
+        if (t <= 1) return t;
+
+        // Rounding can push t just past 1 when the end point lies on the edge; that still counts, like intersects() does
+        double ex = x1 - cx, ey = y1 - cy;
+        return ex * ex + ey * ey <= radius * radius ? 1 : -1;
+    }
+
+    // Makes a player shoot straight into a free pool slot (no new objects are created)
+    // Returns false if the weapon is cooling down or the pool is full
+    public boolean fire(GameCharacter shooter, long now) {
+        if (!shooter.canShoot(now)) return false;
+
+        Projectile slot = projectiles.acquire();
+        if (slot == null) return false; // Too many bullets alive, this shot is dropped
+
+        shooter.shoot(now, slot); // first bullet, restarts the cooldown
+        spawned(slot);
+        if (events != null) {
+            events.publish(GameEvents.Type.SHOT, tick, indexOf(shooter), slot.getId(), shooter.getWeapon().getId(), slot.getX(), slot.getY());
+        }
+
+        // Spread weapons fire the rest of the fan at the same time
+        Weapon weapon = shooter.getWeapon();
+        for (int shot = 1; shot < weapon.getShotCount(); shot++) {
+            Projectile extra = projectiles.acquire();
+            if (extra == null) break;
+            weapon.createProjectile(extra, shooter.getX(), shooter.getY(), shooter.getDirX(), shooter.getDirY(), shooter, shot);
+            spawned(extra);
+        }
+        return true;
+    }
+
+    // Adds a new bullet to the game by copying it into a pool slot
     public void addProjectile(Projectile p) {
-        if (p != null) projectiles.add(p);
+        if (p == null) return;
+
+        Projectile slot = projectiles.acquire();
+        if (slot == null) return;
+        slot.set(p);
+        spawned(slot);
+    }
+
+    // Gives a new bullet its id and tells the listener about it
+    private void spawned(Projectile p) {
+        p.setId(nextProjectileId++);
+        if (listener != null) listener.projectileFired(p);
+    }
+
+    // The player index of 'c' in this match, -1 if he doesn't play in it
+    private int indexOf(GameCharacter c) {
+        return c.getStore() == store ? c.getSlot() : -1;
+    }
+
+    // The match is over when at most one player is left standing
+    public boolean isOver() {
+        return countAlive() <= 1;
+    }
+
+    // Who won: the last player standing, or null while the match is running (or if everybody died)
+    public GameCharacter getWinner() {
+        if (countAlive() != 1) return null;
+        for (GameCharacter c : players) {
+            if (!c.isDead()) return c;
+        }
+        return null;
+    }
+
+    private int countAlive() {
+        int alive = 0;
+        for (GameCharacter c : playerArray) {
+            if (!c.isDead()) alive++;
+        }
+        return alive;
     }
 
+    // ---- Saving and restoring the whole match (rollback netcode, rewinding replays) ----
+    // Everything that changes during a match fits in a fixed-size block of bytes:
+    //   tick, next bullet id, then per player: x, y, direction, health, last shot, weapon id
+    //   then the number of bullets and per bullet: x, y, vx, vy, damage, owner index, weapon number, id
+    // Weapons are stored by their number in this controller's WeaponTable, so a state can only be read
+    // by the controller that wrote it or one of its copies.
+
+    private static final int STATE_HEADER = 8 + 4 + 4;
+    private static final int PLAYER_STATE = 5 * 8 + 4 + 4;
+    private static final int PROJECTILE_STATE = 4 * 8 + 4 * 4;
+
+    // Bytes writeState needs at most (with a full bullet pool)
+    public int getStateSize() {
+        return STATE_HEADER + playerArray.length * PLAYER_STATE + projectiles.capacity() * PROJECTILE_STATE;
+    }
+
+    // Writes the current state of the match into 'out' (from its position). Creates no garbage.
+    public void writeState(ByteBuffer out) {
+        out.putLong(tick);
+        out.putInt(nextProjectileId);
+        out.putInt(projectiles.size());
+
+        for (GameCharacter c : playerArray) {
+            out.putDouble(c.getX());
+            out.putDouble(c.getY());
+            out.putDouble(c.getDirX());
+            out.putDouble(c.getDirY());
+            out.putLong(c.getLastShotTime());
+            out.putInt(c.getHealth());
+            out.putInt(weapons.indexOf(c.getWeapon()));
+        }
+
+        EntityStore s = store;
+        for (int i = 0, n = projectiles.size(); i < n; i++) {
+            out.putDouble(s.bulletX[i]);
+            out.putDouble(s.bulletY[i]);
+            out.putDouble(s.bulletVx[i]);
+            out.putDouble(s.bulletVy[i]);
+            out.putInt(s.bulletDamage[i]);
+            out.putInt(s.bulletOwner[i]); // player index or NO_OWNER
+            out.putInt(weapons.indexOf(s.bulletWeapon[i]));
+            out.putInt(s.bulletId[i]);
+        }
+    }
+
+    // Puts the match back into a state written by writeState (read from 'in's position)
+    public void readState(ByteBuffer in) {
+        tick = in.getLong();
+        nextProjectileId = in.getInt();
+        int count = in.getInt();
+
+        for (GameCharacter c : playerArray) {
+            c.setX(in.getDouble());
+            c.setY(in.getDouble());
+            c.setDirection(in.getDouble(), in.getDouble());
+            long lastShot = in.getLong();
+            c.setHealth(in.getInt());
+            int weapon = in.getInt();
+            if (weapon >= 0) c.setWeapon(weapons.get(weapon));
+            c.setLastShotTime(lastShot); // after setWeapon, which resets the cooldown
+        }
+
+        // Same bullets in the same order (the order decides who is hit first)
+        projectiles.clear();
+        for (int i = 0; i < count; i++) {
+            Projectile p = projectiles.acquire();
+            double x = in.getDouble(), y = in.getDouble(), vx = in.getDouble(), vy = in.getDouble();
+            int damage = in.getInt();
+            int owner = in.getInt();
+            int weapon = in.getInt();
+            p.set(x, y, vx, vy, damage, owner < 0 ? null : playerArray[owner], weapons.get(weapon));
+            p.setId(in.getInt());
+        }
+    }
+
+    // A separate game with the same arena, the same kind of players and the same state as this one
+    // (e.g. for a bot that tries out moves without touching the real match)
+    public GameController copy() {
+        return copy(null, ByteBuffer.allocate(getStateSize()));
+    }
+
+    // Same, but reuses 'old' (an earlier copy, e.g. of the last match) if it has the same arena, bullet pool
+    // and number of players: then only the players are made new. 'buffer' carries the state (getStateSize() bytes).
+    public GameController copy(GameController old, ByteBuffer buffer) {
+        List<GameCharacter> copies = new ArrayList<>();
+        for (GameCharacter c : playerArray) {
+            copies.add(GameCharacter.create(c.getClass().getSimpleName(), c.getName(), c.getX(), c.getY(), c.getWeapon()));
+        }
+
+        GameController copy;
+        if (old != null && old.width == width && old.height == height && old.playerArray.length == playerArray.length
+                && old.projectiles.capacity() == projectiles.capacity() && old.tickRate == tickRate) {
+            copy = old;
+            copy.restart(copies);
+        } else {
+            copy = new GameController(width, height, copies, projectiles.capacity(), tickRate);
+        }
+        copy.weapons = weapons; // same weapon numbers in both
+
+        writeState(buffer);
+        copy.readState(buffer.flip());
+        return copy;
+    }
+
+    // Turns on timing of the tick phases (pass null to turn it off again)
+    public void setMetrics(GameMetrics metrics) { this.metrics = metrics; }
+    public void setProjectileListener(ProjectileListener listener) { this.listener = listener; }
+    // Publishes the game events into 'events' (null = don't). Its readers run on their own threads.
+    public void setEvents(GameEvents events) { this.events = events; }
+
     // Getters to allow the view (GameScene) to see the data
-    public List<Projectile> getProjectiles() { return projectiles; }
-    public GameCharacter getP1() { return p1; }
-    public GameCharacter getP2() { return p2; }
+    public ProjectilePool getProjectiles() { return projectiles; }
+    public EntityStore getStore() { return store; }
+    public List<GameCharacter> getPlayers() { return players; }
+    public GameCharacter getPlayer(int index) { return players.get(index); }
+    public GameCharacter getP1() { return players.get(0); }
+    public GameCharacter getP2() { return players.get(1); }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public long getTick() { return tick; }
+    public int getTickRate() { return tickRate; }
+    public double getTickSeconds() { return tickSeconds; }
+    public long getTimeMs() { return tick * 1000 / tickRate; } // simulation time, use this for cooldowns
 }
-
@@ -0,0 +1,154 @@
+package com.ozyra.battlearena.controller;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A ring of game events (shots, damage, deaths, weapon swaps, end of the match) written by ONE thread
+// (the one that ticks the GameController) and read by any number of others.
+//
+// Everything is made in the constructor: every event is a row in a few plain arrays ("columns"),
+// so publishing an event is just writing some numbers, no objects and no locks.
+// Every reader (see newReader) remembers on its own how far it has read, so readers never disturb
+// each other or the writer: the game never waits for anybody, however many readers there are.
+//
+// The price: a reader that falls more than 'capacity' events behind loses the oldest ones
+// (it notices, skips to the oldest event that is still there and counts the lost ones in getDropped()).
+//
+// How a reader knows an event was not overwritten while it was copying it (like a StampedLock):
+//   claimed   = number of events the writer has STARTED to write
+//   published = number of events that are completely written
+// Event n lives in slot n % capacity, so writing event n + capacity destroys event n.
+// The reader copies event n, then checks that claimed <= n + capacity. If not, it throws the copy away.
+public class GameEvents {
+
+    // What happened. The meaning of player / other / value depends on the type.
+    // (x, y) is where the bullet left the gun / hit, or where the player stands.
+    public enum Type {
+        SHOT,       // player fired,     other = id of the (first) bullet, value = weapon id
+        DAMAGE,     // player was hit,   other = shooter (-1 = none),      value = damage
+        DEATH,      // player died,      other = shooter (-1 = none),      value = 0
+        WEAPON,     // player switched,  other = old weapon id,            value = new weapon id
+        MATCH_OVER  // player = winner (-1 = nobody),  other = 0,          value = 0
+    }
+
+    private final int mask; // capacity - 1 (capacity is a power of two)
+
+    // The columns (row = slot)
+    private final Type[] types;
+    private final long[] ticks; // tick the event happened in (GameController.getTick() while it runs)
+    private final int[] players, others, values;
+    private final double[] xs, ys; // where it happened (in the world)
+
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private long next; // number of the next event to write (only used by the writer)
+
+    // capacity: how many events are kept for slow readers (rounded up to a power of two)
+    public GameEvents(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+
+        mask = size - 1;
+        types = new Type[size];
+        ticks = new long[size];
+        players = new int[size];
+        others = new int[size];
+        values = new int[size];
+        xs = new double[size];
+        ys = new double[size];
+    }
+
+    // ---- Writer (one thread only, the game thread) ----
+
+    // (x, y): where it happened, e.g. where the bullet hit (used by the particle effects)
+    public void publish(Type type, long tick, int player, int other, int value, double x, double y) {
+        long n = next++;
+        claimed.set(n + 1);
+        VarHandle.storeStoreFence(); // readers must see the claim before any of the writes below
+
+        int k = (int) (n & mask);
+        types[k] = type;
+        ticks[k] = tick;
+        players[k] = player;
+        others[k] = other;
+        values[k] = value;
+        xs[k] = x;
+        ys[k] = y;
+
+        published.setRelease(n + 1); // the event is complete
+    }
+
+    // How many events were published so far
+    public long getPublished() { return published.get(); }
+    public int getCapacity() { return mask + 1; }
+
+    // A new reader, starting with the next event that is published.
+    // Make one per reading thread (e.g. at setup): the reader itself is not thread-safe.
+    public Reader newReader() {
+        return new Reader();
+    }
+
+    // Reads the events one after the other. poll() copies the next event into this reader,
+    // the getters then show that copy (so nothing is allocated, and the writer can't change it under us).
+    public final class Reader {
+
+        private long position = published.get(); // number of the next event to read
+        private long dropped; // events lost because this reader was too slow
+
+        private Type type;
+        private long tick;
+        private int player, other, value;
+        private double x, y;
+
+        // Takes the next event. Returns false (and changes nothing) if there is no new one.
+        public boolean poll() {
+            int capacity = mask + 1;
+            while (true) {
+                if (position >= published.get()) return false;
+
+                // Too far behind: the oldest events are gone (or being overwritten right now), jump over them
+                long oldest = claimed.get() - capacity;
+                if (position < oldest) {
+                    dropped += oldest - position;
+                    position = oldest;
+                    continue;
+                }
+
+                int k = (int) (position & mask);
+                Type t = types[k];
+                long tk = ticks[k];
+                int p = players[k], o = others[k], v = values[k];
+                double px = xs[k], py = ys[k];
+
+                VarHandle.acquireFence(); // the copies above are done before we look at 'claimed' again
+                if (claimed.get() - position > capacity) continue; // overwritten while we copied: try again
+
+                type = t;
+                tick = tk;
+                player = p;
+                other = o;
+                value = v;
+                x = px;
+                y = py;
+                position++;
+                return true;
+            }
+        }
+
+        // Forgets every event published so far (e.g. those of an old match)
+        public void skipAll() {
+            position = published.get();
+        }
+
+        public Type type() { return type; }
+        public long tick() { return tick; }
+        public int player() { return player; }
+        public int other() { return other; }
+        public int value() { return value; }
+        public double x() { return x; }
+        public double y() { return y; }
+        public long getDropped() { return dropped; }
+        public long getPosition() { return position; }
+    }
+}
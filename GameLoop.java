@@ -0,0 +1,99 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.metrics.GameMetrics;
+import javafx.animation.AnimationTimer;
+
+import java.util.function.ObjDoubleConsumer;
+
+// Runs a GameController in real time inside the JavaFX window.
+// This is the only part of the controller package that needs JavaFX.
+//
+// Two threads work together:
+// - the SimulationThread ticks the game at its fixed rate and publishes a RenderState after each batch of ticks
+// - the JavaFX thread (this AnimationTimer) draws the newest RenderState once per screen refresh
+// So a slow frame can't slow down the game, and a slow tick can't make the window stutter.
+//
+// One loop can run many matches: stop() it, restart the GameController, and start() it again.
+public class GameLoop {
+
+    private final GameController game;
+    private final SimulationThread simulation; // ticks the game on its own thread
+    private final AnimationTimer timer; // Timer that draws the frames (made once, started for every match)
+    private ObjDoubleConsumer<RenderState> onFrame; // what to do with each frame
+    private GameMetrics metrics; // frame timings go here, null = not measured
+    private int ticksLastFrame; // how many ticks happened since the last frame
+    private long lastFrameNanos; // time between the last two frames
+    private long lastFrame; // time of the previous frame (0 = no frame yet)
+    private long lastTick; // tick of the state drawn last frame (-1 = nothing drawn yet)
+
+    // One input source per player (index 0 = P1, 1 = P2)
+    public GameLoop(GameController game, InputSource... sources) {
+        this.game = game;
+        this.simulation = new SimulationThread(game, sources);
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frame(now);
+            }
+        };
+    }
+
+    // Starts the game loop
+    // onFrame runs once per screen refresh on the JavaFX thread, with the newest state of the game
+    // and how far to slide between its previous and current positions (0..1, see RenderState.alpha).
+    // Draw only from that state: the game itself keeps changing on the simulation thread.
+    public void start(ObjDoubleConsumer<RenderState> onFrame) {
+        this.onFrame = onFrame;
+        lastFrame = 0;
+        lastTick = -1;
+        ticksLastFrame = 0;
+        lastFrameNanos = 0;
+        simulation.start();
+        timer.start(); // Activate the timer
+    }
+
+    private void frame(long now) {
+        if (lastFrame != 0) {
+            lastFrameNanos = now - lastFrame;
+            if (metrics != null) metrics.record(GameMetrics.Phase.FRAME, lastFrameNanos);
+        }
+        lastFrame = now; // Reset time for next frame
+
+        // Take the newest state (never waits for the simulation thread)
+        RenderState state = simulation.latest();
+        ticksLastFrame = lastTick < 0 ? 0 : (int) (state.tick - lastTick);
+        lastTick = state.tick;
+
+        // AnimationTimer times are System.nanoTime() values, same as the simulation thread uses
+        onFrame.accept(state, state.alpha(now)); // tell the view to draw it
+    }
+
+    // Stops the game loop "when game over"
+    // When this returns the game thread has finished, so the game and the recorder can be used safely again
+    public void stop() {
+        timer.stop();
+        simulation.stop();
+    }
+
+    // Who presses the buttons in the next match (set it while the loop is stopped)
+    public void setSources(InputSource... sources) {
+        simulation.setSources(sources);
+    }
+
+    // Turns on frame/tick timing for this loop and its game (set it before start)
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+        game.setMetrics(metrics);
+        simulation.setMetrics(metrics);
+    }
+
+    // Records every tick of the match into 'recorder' (set it before start)
+    public void setRecorder(ReplayRecorder recorder) {
+        simulation.setRecorder(recorder);
+    }
+
+    public GameController getGame() { return game; }
+    public int getTicksLastFrame() { return ticksLastFrame; }
+    public long getLastFrameNanos() { return lastFrameNanos; }
+    public SimulationClock getClock() { return simulation.getClock(); }
+}
@@ -0,0 +1,56 @@
+package com.ozyra.battlearena.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// All the numbers we collect while a match runs: how long each phase of a frame takes,
+// how many bullets are alive, and the latest one-second summary ("window").
+//
+// The game threads only call the cheap record/set methods.
+// MetricsReporter turns the raw numbers into summaries once per second,
+// for the on-screen overlay, JMX, JFR and the CSV file.
+public class GameMetrics {
+
+    // The parts of a frame we time separately
+    public enum Phase {
+        INPUT, // reading keys/scripts and moving the players
+        SIMULATION, // moving bullets
+        COLLISION, // finding and applying hits
+        TICK, // one whole simulation step (input + simulation + collision)
+        RENDER, // drawing the frame
+        FRAME // time from one frame to the next (1 / fps)
+    }
+
+    private final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private final LatencyHistogram[] byOrdinal; // same histograms, as an array for fast access
+
+    private volatile int liveProjectiles;
+    private volatile long gameThreadId = -1; // the thread whose allocations we watch
+    private volatile MetricsWindow latest = MetricsWindow.EMPTY; // last summary from the reporter
+
+    public GameMetrics() {
+        byOrdinal = new LatencyHistogram[Phase.values().length];
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram h = new LatencyHistogram();
+            histograms.put(phase, h);
+            byOrdinal[phase.ordinal()] = h;
+        }
+    }
+
+    // Records how long 'phase' took (call it from the thread that runs that phase)
+    public void record(Phase phase, long nanos) {
+        byOrdinal[phase.ordinal()].record(nanos);
+    }
+
+    public void setLiveProjectiles(int count) { liveProjectiles = count; }
+
+    // Tells the metrics which thread runs the game, so its allocation rate can be measured
+    public void setGameThread(Thread thread) { gameThreadId = thread.getId(); }
+
+    public LatencyHistogram histogram(Phase phase) { return histograms.get(phase); }
+    public int getLiveProjectiles() { return liveProjectiles; }
+    public long getGameThreadId() { return gameThreadId; }
+    public MetricsWindow getLatest() { return latest; }
+
+    void setLatest(MetricsWindow window) { latest = window; }
+}
@@ -0,0 +1,21 @@
+package com.ozyra.battlearena.metrics;
+
+// What JConsole / VisualVM (or any JMX client) can read about a running match.
+// All values are for the last one-second window; times are in milliseconds.
+public interface GameMetricsMXBean {
+
+    double getFramesPerSecond();
+    double getFrameP50Ms();
+    double getFrameP99Ms();
+    double getFrameMaxMs();
+
+    double getTicksPerSecond();
+    double getTickP99Ms();
+    double getInputP99Ms();
+    double getSimulationP99Ms();
+    double getCollisionP99Ms();
+    double getRenderP99Ms();
+
+    int getLiveProjectiles();
+    double getAllocationRateMBPerSecond();
+}
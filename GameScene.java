@@ -1,144 +1,500 @@
 package com.ozyra.battlearena.scenes;
 
 import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.GameEvents;
+import com.ozyra.battlearena.controller.GameLoop;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.ProjectilePool;
+import com.ozyra.battlearena.controller.RenderState;
+import com.ozyra.battlearena.controller.ReplayRecorder;
+import com.ozyra.battlearena.controller.SearchBot;
+import com.ozyra.battlearena.controller.SimulationClock;
+import com.ozyra.battlearena.metrics.FrameEvent;
+import com.ozyra.battlearena.metrics.GameMetrics;
+import com.ozyra.battlearena.metrics.MetricsReporter;
+import com.ozyra.battlearena.metrics.MetricsWindow;
+import com.ozyra.battlearena.model.CharacterShape;
 import com.ozyra.battlearena.model.GameCharacter;
-import com.ozyra.battlearena.model.Projectile;
-import com.ozyra.battlearena.model.Weapon;
+import com.ozyra.battlearena.model.WeaponRegistry;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.*;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
+import javafx.util.Callback;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+
+// The match screen. It is built ONCE (see Screens) and reused for every match:
+// start() puts new players into the same controller, loop, canvases and sprite atlas,
+// so going from the menu to a match (and back with RETRY) creates almost nothing new.
+public class GameScene {
 
-import java.util.HashSet;
-import java.util.Set;
+    // Size of the window. The world (arena) can be much bigger, the cameras show the part around the players.
+    private static final double SCREEN_WIDTH = 1200, SCREEN_HEIGHT = 600;
 
-public class GameScene {
+    // The "screen" is made of 3 transparent canvases stacked on top of each other ("layers"):
+    // background: arena floor + center line, only repainted when a camera moves (or on resize)
+    private final Canvas background = new Canvas(1200, 600);
+    // entities: players and bullets, only the parts that moved are erased each frame
+    private final Canvas entities = new Canvas(1200, 600);
+    // (between these two: the particle image, see particleLayer)
+    // hud: text on top of everything (game over message), painted only when it changes
+    private final Canvas hud = new Canvas(1200, 600);
+
+    // What was drawn on the entity layer last frame (this is what we have to erase)
+    private final DirtyRegions dirty = new DirtyRegions(256);
 
-    // The canvas is the "screen" where we draw all the shapes and players
-    private final Canvas canvas = new Canvas(1200, 600);
+    // The root pane that stacks the layers (and the Retry button)
+    private final StackPane root;
 
     // The Scene container that holds the canvas
     private final Scene scene;
 
-    // KEY CONCEPT: We use a Set to store keys because a Set cannot have duplicates.
-    // This allows us to handle multiple key presses at once
-    private final Set<KeyCode> keys = new HashSet<>();
+    // Turns key presses into buttons for both players (bindings can be changed in assets/keys.properties)
+    private final KeyboardInput keyboard = new KeyboardInput(KeyBindings.loadOrDefaults(Path.of("assets/keys.properties")), 2);
 
-    // The link to the game logic
+    // The link to the game logic (restarted with the new players for every match)
     private final GameController controller;
 
+    // Runs the game logic in real time (on its own thread, we only get copies of its state to draw)
+    private final GameLoop loop;
+
+    // Size of the world (-Dbattlearena.world=4800x2400, default: as big as the window)
+    private final double worldWidth, worldHeight;
+
+    // cameras[0] shows both players while they fit on the screen.
+    // When they get too far apart the screen is split: cameras[0] follows P1 on the left half, cameras[1] P2 on the right half.
+    private final Camera[] cameras = {new Camera(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT), new Camera(SCREEN_WIDTH / 2, 0, SCREEN_WIDTH / 2, SCREEN_HEIGHT)};
+    private boolean split;
+
+    // Room kept around each player when deciding if both fit on one screen (labels and health bar included).
+    // Splitting needs less room than joining again, so the view doesn't flip back and forth at the limit.
+    private static final double SPLIT_EDGE = 100, JOIN_EDGE = 150;
+
+    // How far the labels and health bar of a player reach from its center (used to skip players that can't be seen)
+    private static final double PLAYER_REACH = 100;
+
+    // Camera positions the background was last painted for
+    private final double[] paintedCamera = new double[5];
+
+    // Bullets found inside a camera's view (filled by RenderState.visibleBullets, reused every frame)
+    private final int[] visible;
+
+    // Pre-drawn pictures of the players and their labels
+    private final SpriteAtlas atlas = new SpriteAtlas();
+
+    // Performance numbers (frame/tick timings), shown with F3 and exported over JMX / JFR / CSV
+    private final GameMetrics metrics = new GameMetrics();
+    private final MetricsReporter reporter = MetricsReporter.fromSystemProperties(metrics);
+    private boolean showMetrics = false;
+    private MetricsWindow shownWindow; // the window currently painted on the overlay
+    private static final javafx.scene.text.Font OVERLAY_FONT = javafx.scene.text.Font.font("Consolas", 12);
+
+    // Saves the match so it can be watched again (see Replay), null = not recorded
+    private ReplayRecorder recorder;
+
+    // What happens in the match (shots, hits, deaths, ...), published by the game thread.
+    // This screen reads it only to find out when the match is over; stats, sound or the network can get readers of their own.
+    private final GameEvents events = new GameEvents(1024);
+    private final GameEvents.Reader eventReader = events.newReader();
+    private long overTick = -1; // tick in which the match was decided (-1 = not yet)
+    private int winner = -1;
+
+    // Sparks, muzzle flashes and death bursts (see ParticleSystem), shown on a layer of their own:
+    // an image whose pixels are particlePixels (through a PixelBuffer, so JavaFX uses our array without copying it)
+    private final ParticleSystem particles = new ParticleSystem(ParticleSystem.DEFAULT_CAPACITY);
+    private final int[] particlePixels = new int[1200 * 600];
+    private final PixelBuffer<IntBuffer> particleBuffer = new PixelBuffer<>(1200, 600, IntBuffer.wrap(particlePixels), PixelFormat.getIntArgbPreInstance());
+    private final ImageView particleLayer = new ImageView(new WritableImage(particleBuffer));
+    private final int[] particleRect = new int[4]; // the part of the image that changed this frame
+    private final int[] particleTiles = {-1, -1, -1, -1}; // that part snapped out to whole tiles (x0, y0, x1, y1)
+    private Rectangle2D particleDirty = Rectangle2D.EMPTY; // the same as a Rectangle2D, for JavaFX
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> particleUpdate = b -> particleDirty();
+    private static final int PARTICLE_TILE = 64;
+    private long particleTick = -1; // tick the particles were last moved to (-1 = not yet)
+    private static final int MUZZLE_COLOR = 0xFFD27A, HIT_COLOR = 0xFF8C42, DEATH_COLOR = 0xE8322B;
+
     // Flag to stop the game when someone dies
     private boolean gameOver = false;
 
-    // Movement speed in pixels per second
-    private static final double SPEED = 200;
-
     // Visual: Defines the dark spotlight background
     private static final RadialGradient ARENA_BG = new RadialGradient(0, 0, 0.5, 0.5, 1.0, true, CycleMethod.NO_CYCLE, new Stop(0, Color.web("#2b2b2b")), new Stop(1, Color.web("111111")));
 
+    // Visual: the red part of the health bars
+    private static final Color HP_BACK = Color.web("#c0392b");
+
     // Visual: Defines the green gradient for health bars
     private static final LinearGradient HP_GRADIENT = new LinearGradient(0,0,0,1, true, CycleMethod.NO_CYCLE, new Stop(0, Color.web("#2ecc71")), new Stop(1, Color.web("#27ae60")));;
 
-    // Constructor: sets up the window and starts the loop
-    public GameScene(Stage stage, GameCharacter p1, GameCharacter p2) {
-        controller = new GameController(1200, 600, p1, p2);
-
-        // StackPane allows us to stack the "Retry" button on TOP of the Canvas later
-        StackPane root = new StackPane(canvas);
+    // Visual: the game over texts (made once, not every time somebody wins)
+    private static final javafx.scene.text.Font GAME_OVER_FONT = javafx.scene.text.Font.font("Segoe UI", 80);
+    private static final javafx.scene.text.Font WINNER_FONT = javafx.scene.text.Font.font("Segoe UI", 40);
+
+    // The computer player (P2 in CPU matches). Made once with the scene: its threads and game copies
+    // are reused by every CPU match (reset in start), it only sits idle in the other matches.
+    private final SearchBot bot = new SearchBot(1);
+
+    // Shown when the match is over, takes us back to the menu
+    private final Button retry = new Button("RETRY");
+
+    // Draws one frame (made once and handed to the loop for every match)
+    private final ObjDoubleConsumer<RenderState> drawFrame = this::draw;
+
+    // Constructor: sets up the window, the game logic and the loop (nothing runs until start)
+    // onRetry: what the RETRY button does (usually: show the menu again)
+    public GameScene(Stage stage, Runnable onRetry) {
+        // The game can tick slower than the screen (-Dbattlearena.tickRate=60), the drawing slides in between ticks
+        int tickRate = Integer.getInteger("battlearena.tickRate", SimulationClock.DEFAULT_TICK_RATE);
+        double[] world = parseSize(System.getProperty("battlearena.world"), SCREEN_WIDTH, SCREEN_HEIGHT);
+        worldWidth = world[0];
+        worldHeight = world[1];
+
+        // The controller (and its big bullet store) is made now with stand-in players,
+        // every match then only restarts it with the real ones
+        controller = new GameController(worldWidth, worldHeight, standIn("P1"), standIn("P2"), ProjectilePool.DEFAULT_CAPACITY, tickRate);
+        visible = new int[controller.getProjectiles().capacity()];
+        controller.setEvents(events);
+
+        // StackPane allows us to stack the layers, and the "Retry" button on TOP of them
+        root = new StackPane(background, entities, particleLayer, hud, retry);
         scene = new Scene(root);
+        particleLayer.setMouseTransparent(true);
+
+        // Style the retry btn (hidden until the game is over)
+        retry.setStyle("-fx-background-color: #00a8ff; -fx-text-fill: white; -fx-font-size: 20px; -fx-padding: 10 40; -fx-background-radius: 30; -fx-cursor: hand;");
+        retry.setTranslateY(150); // move btn down
+        retry.setVisible(false);
+        retry.setOnAction(e -> onRetry.run());
+
+        // The background is painted now, and again only if its size changes or a camera moves
+        paintBackground();
+        background.widthProperty().addListener(o -> paintBackground());
+        background.heightProperty().addListener(o -> paintBackground());
 
         // EVENT LISTENERS:
-        // When a key is pressed, add it to our "Active Keys" list
-        scene.setOnKeyPressed(e -> keys.add(e.getCode()));
+        // Key presses and releases are queued with their time, the game reads them once per tick
+        // F3 shows/hides the performance overlay
+        scene.setOnKeyPressed(e -> keyboard.keyPressed(e.getCode()));
+        scene.setOnKeyReleased(e -> {
+            if (e.getCode() == KeyCode.F3) toggleMetrics();
+            keyboard.keyReleased(e.getCode());
+        });
+
+        // If the window loses focus we never see the key releases, so let go of everything
+        stage.focusedProperty().addListener((o, was, focused) -> {
+            if (!focused) keyboard.releaseAll();
+        });
+
+        // The game loop (its input sources are chosen for each match in start)
+        loop = new GameLoop(controller, keyboard, keyboard);
+        loop.setMetrics(metrics);
+    }
+
+    // A player for the controller before the first match (never shown)
+    private static GameCharacter standIn(String name) {
+        return GameCharacter.create("Warrior", name, 0, 0, WeaponRegistry.byId(0));
+    }
+
+    // Starts a new match on this screen
+    // cpuOpponent = true: player 2 is played by the computer
+    public void start(GameCharacter p1, GameCharacter p2, boolean cpuOpponent) {
+        // Both players read the keyboard (once per simulation tick, on the game thread), or P2 asks the bot for its latest move
+        if (cpuOpponent) bot.reset(); // forget what it was thinking about in the last match
+        start(p1, p2, keyboard, cpuOpponent ? bot : keyboard);
+    }
+
+    // Same, with any input source per player (e.g. scripted players, see RenderSoak)
+    public void start(GameCharacter p1, GameCharacter p2, InputSource... sources) {
+        // In case the last match is still running: stop it and close its metrics export and replay
+        loop.stop();
+        finishMatch();
+
+        // The menu places the players for a window-sized arena, move them to the same spots in the world
+        for (GameCharacter c : new GameCharacter[]{p1, p2}) {
+            c.setX(c.getX() * worldWidth / SCREEN_WIDTH);
+            c.setY(c.getY() * worldHeight / SCREEN_HEIGHT);
+        }
 
-        // When a key is released, remove it from the list
-        scene.setOnKeyReleased(e -> keys.remove(e.getCode()));
+        // The old players are gone: drop their labels, then move the new ones into the controller
+        for (GameCharacter c : controller.getPlayers()) atlas.forget(c);
+        controller.restart(List.of(p1, p2));
+
+        // Clean screen: no game over text, no retry button, background repainted for the new camera position
+        // (the players of the last match are erased by the first frame, they are still in 'dirty')
+        gameOver = false;
+        overTick = -1;
+        winner = -1;
+        eventReader.skipAll(); // (events of the last match)
+        particles.clear();
+        particleTick = -1;
+        retry.setVisible(false);
+        hud.getGraphicsContext2D().clearRect(0, 0, hud.getWidth(), hud.getHeight());
+        shownWindow = null;
+        split = false;
+        paintedCamera[0] = -1;
+        keyboard.clear(); // (keys pressed on the game over screen, the loop is stopped so this is safe)
 
         // Start the game loop
-        controller.start(dt -> {
-            handleInput(dt); // 1. Check keys and move
-            draw(stage); // 2. Draw the new frame
-        });
+        // 1. Each player gets his buttons from his input source (once per simulation tick, on the game thread)
+        loop.setSources(sources);
+        recorder = startRecording(controller);
+        loop.setRecorder(recorder);
+        reporter.start();
+        // 2. Draw the newest state of the game (once per screen refresh)
+        loop.start(drawFrame);
+    }
+
+    // Draws every sprite a match can need into the atlas before the first match,
+    // so the first frames don't have to (call it on the JavaFX thread, e.g. while the menu is shown)
+    public void warmUp() {
+        root.applyCss(); // styles the (hidden) retry button now
+        for (CharacterShape shape : CharacterShape.values()) atlas.shape(shape);
+        for (GameCharacter c : controller.getPlayers()) {
+            atlas.nameLabel(c);
+            for (int id = 0; id < WeaponRegistry.count(); id++) {
+                atlas.projectile(WeaponRegistry.byId(id));
+                atlas.weaponLabel(c, WeaponRegistry.byId(id));
+            }
+        }
+    }
+
+    // Starts recording the match into the replays folder (-Dbattlearena.replays=<dir>, or "off" to turn it off)
+    private static ReplayRecorder startRecording(GameController game) {
+        String dir = System.getProperty("battlearena.replays", "replays");
+        if (dir.equals("off")) return null;
+
+        try {
+            Path folder = Files.createDirectories(Path.of(dir));
+            String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            return new ReplayRecorder(folder.resolve("match-" + time + ".replay"), game);
+        } catch (IOException e) {
+            System.err.println("Could not record the match: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Stops exporting metrics for this match and saves the replay (does nothing the second time)
+    private void finishMatch() {
+        reporter.close();
+        if (recorder == null) return;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Could not save the replay: " + e.getMessage());
+        }
+        recorder = null;
+        loop.setRecorder(null);
     }
 
-    // Handles all player and movement actions
-    private void handleInput(double dt) {
-        if (gameOver) return; // Stop inputs if game is over
-
-        GameCharacter p1 = controller.getP1();
-        GameCharacter p2 = controller.getP2();
-
-        // ---- Player 1 Movement (WASD) ----
-        // Math.max/min ensures they cannot walk off the screen
-        if (keys.contains(KeyCode.W)) { p1.setY(Math.max(20, p1.getY() - SPEED * dt)); p1.setDirection(0, -1); }
-        if (keys.contains(KeyCode.S)) { p1.setY(Math.min(580, p1.getY() + SPEED * dt)); p1.setDirection(0, 1); }
-        if (keys.contains(KeyCode.A)) { p1.setX(Math.max(20, p1.getX() - SPEED * dt)); p1.setDirection(-1, 0); }
-        if (keys.contains(KeyCode.D)) { p1.setX(Math.min(600, p1.getX() + SPEED * dt)); p1.setDirection(1, 0); }
-
-        //---- Player 2 Movement (Arrows) ----
-        if (keys.contains(KeyCode.UP))    { p2.setY(Math.max(20, p2.getY() - SPEED * dt)); p2.setDirection(0, -1); }
-        if (keys.contains(KeyCode.DOWN))  { p2.setY(Math.min(580, p2.getY() + SPEED * dt)); p2.setDirection(0, 1); }
-        if (keys.contains(KeyCode.LEFT))  { p2.setX(Math.max(600, p2.getX() - SPEED * dt)); p2.setDirection(-1, 0); }
-        if (keys.contains(KeyCode.RIGHT)) { p2.setX(Math.min(1180, p2.getX() + SPEED * dt)); p2.setDirection(1, 0); }
-
-        // Shooting logic ( F for player1, L for player 2)
-        long now = System.currentTimeMillis();
-        if (keys.contains(KeyCode.F)) controller.addProjectile(p1.shoot(now));
-        if (keys.contains(KeyCode.L)) controller.addProjectile(p2.shoot(now));
-
-        // Weapon switching logic
-        if (keys.contains(KeyCode.DIGIT1)) p1.setWeapon(Weapon.createWeapon("Sword"));
-        if (keys.contains(KeyCode.DIGIT2)) p1.setWeapon(Weapon.createWeapon("Bow"));
-        if (keys.contains(KeyCode.DIGIT3)) p1.setWeapon(Weapon.createWeapon("Magic"));
-
-        if (keys.contains(KeyCode.B)) p2.setWeapon(Weapon.createWeapon("Sword"));
-        if (keys.contains(KeyCode.N)) p2.setWeapon(Weapon.createWeapon("Bow"));
-        if (keys.contains(KeyCode.M)) p2.setWeapon(Weapon.createWeapon("Magic"));
+    // "4800x2400" -> {4800, 2400}, anything else -> the default size
+    private static double[] parseSize(String text, double defaultWidth, double defaultHeight) {
+        if (text != null) {
+            String[] parts = text.toLowerCase().split("x");
+            try {
+                double w = Double.parseDouble(parts[0].trim()), h = Double.parseDouble(parts[1].trim());
+                if (w > 0 && h > 0) return new double[]{w, h};
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                // fall through
+            }
+            System.err.println("Bad world size '" + text + "', using " + (int) defaultWidth + "x" + (int) defaultHeight);
+        }
+        return new double[]{defaultWidth, defaultHeight};
     }
 
-    // The main drawing method called 60 times a second
-    private void draw(Stage stage) {
-        GraphicsContext g = canvas.getGraphicsContext2D();
+    // Paints the background layer: arena floor and center line (as seen by the cameras)
+    private void paintBackground() {
+        GraphicsContext g = background.getGraphicsContext2D();
+        double w = background.getWidth(), h = background.getHeight();
 
         // 1. Draw Background
         g.setFill(ARENA_BG);
-        g.fillRect(0, 0, 1200, 600);
+        g.fillRect(0, 0, w, h);
+
+        for (int v = 0; v < (split ? 2 : 1); v++) {
+            Camera cam = cameras[v];
+            g.save(); // Save settings (and the clip, so each half of a split screen only paints itself)
+            if (split) clip(g, cam);
+
+            // 2. A grid on the floor, so you can see the world move when it is bigger than the screen
+            if (worldWidth > SCREEN_WIDTH || worldHeight > SCREEN_HEIGHT) {
+                g.setStroke(Color.web("#1e1e1e"));
+                g.setLineWidth(1);
+                double step = 200;
+                for (double x = Math.floor(cam.getX() / step) * step; x <= cam.getX() + cam.getWidth(); x += step) {
+                    g.strokeLine(cam.toScreenX(x), cam.getTop(), cam.toScreenX(x), cam.getTop() + cam.getHeight());
+                }
+                for (double y = Math.floor(cam.getY() / step) * step; y <= cam.getY() + cam.getHeight(); y += step) {
+                    g.strokeLine(cam.getLeft(), cam.toScreenY(y), cam.getLeft() + cam.getWidth(), cam.toScreenY(y));
+                }
+            }
 
-        // 2. Draw Center line
-        g.setStroke(Color.web("#444444"));
-        g.setLineWidth(4);
-        g.setLineDashes(15, 15); // Dashed effect
+            // 3. Draw Center line (the middle of the world)
+            g.setStroke(Color.web("#444444"));
+            g.setLineWidth(4);
+            g.setLineDashes(15, 15); // Dashed effect
 
-        // Add shadow only to the line
-        g.save(); // Save settings
-        g.setEffect(new DropShadow(10, Color.BLACK));
-        g.strokeLine(600, 0, 600, 600);
-        g.restore(); // // Restore settings so shadow doesn't apply to everything else
+            // Add shadow only to the line
+            g.setEffect(new DropShadow(10, Color.BLACK));
+            g.strokeLine(cam.toScreenX(worldWidth / 2), cam.toScreenY(0), cam.toScreenX(worldWidth / 2), cam.toScreenY(worldHeight));
+            g.restore(); // Restore settings so shadow doesn't apply to everything else
+        }
 
         g.setLineDashes(null); // Reset dashes
+    }
 
-        // 3. Draw Players
-        drawPlayer(g, controller.getP1());
-        drawPlayer(g, controller.getP2());
+    // Lets 'g' only paint inside the viewport of 'cam' (undone by g.restore())
+    private static void clip(GraphicsContext g, Camera cam) {
+        g.beginPath();
+        g.rect(cam.getLeft(), cam.getTop(), cam.getWidth(), cam.getHeight());
+        g.clip();
+    }
 
-        // 4. Draw Projectiles
-        for (Projectile p : controller.getProjectiles()) {
-            g.setFill(Color.YELLOW);
-            g.setEffect(new DropShadow(5, Color.ORANGE));
-            g.fillOval(p.getX() - 5, p.getY() - 5, 10, 10);
-            g.setEffect(null);
+    // Points the cameras at the players, and splits the screen when they don't fit on it together.
+    // A world that fits on the screen (the normal 1200x600 arena) is never split: one camera shows all of it.
+    private void moveCameras(RenderState state, double alpha) {
+        double x1 = state.playerX(0, alpha), y1 = state.playerY(0, alpha);
+        double x2 = state.playerX(1, alpha), y2 = state.playerY(1, alpha);
+
+        double edge = split ? JOIN_EDGE : SPLIT_EDGE;
+        boolean scrolls = worldWidth > SCREEN_WIDTH || worldHeight > SCREEN_HEIGHT;
+        split = scrolls && (Math.abs(x1 - x2) + 2 * edge > SCREEN_WIDTH || Math.abs(y1 - y2) + 2 * edge > SCREEN_HEIGHT);
+
+        if (split) {
+            cameras[0].setViewport(0, 0, SCREEN_WIDTH / 2, SCREEN_HEIGHT);
+            cameras[0].follow(x1, y1, worldWidth, worldHeight);
+            cameras[1].follow(x2, y2, worldWidth, worldHeight);
+        } else {
+            cameras[0].setViewport(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+            cameras[0].follow((x1 + x2) / 2, (y1 + y2) / 2, worldWidth, worldHeight);
         }
 
+        // Repaint the background only if the view really changed
+        double splitFlag = split ? 1 : 0;
+        if (paintedCamera[0] != splitFlag || paintedCamera[1] != cameras[0].getX() || paintedCamera[2] != cameras[0].getY()
+                || (split && (paintedCamera[3] != cameras[1].getX() || paintedCamera[4] != cameras[1].getY()))) {
+            paintedCamera[0] = splitFlag;
+            paintedCamera[1] = cameras[0].getX();
+            paintedCamera[2] = cameras[0].getY();
+            paintedCamera[3] = cameras[1].getX();
+            paintedCamera[4] = cameras[1].getY();
+            paintBackground();
+        }
+    }
+
+    // The changed part of the particle image for JavaFX, made bigger to whole PARTICLE_TILE squares.
+    // A new Rectangle2D is only made when those squares change, which is rare: the sparks stay in the same few tiles.
+    private Rectangle2D particleDirty() {
+        int w = (int) SCREEN_WIDTH, h = (int) SCREEN_HEIGHT; // size of the particle image
+        int x0 = particleRect[0] / PARTICLE_TILE * PARTICLE_TILE;
+        int y0 = particleRect[1] / PARTICLE_TILE * PARTICLE_TILE;
+        int x1 = Math.min(w, (particleRect[0] + particleRect[2] + PARTICLE_TILE - 1) / PARTICLE_TILE * PARTICLE_TILE);
+        int y1 = Math.min(h, (particleRect[1] + particleRect[3] + PARTICLE_TILE - 1) / PARTICLE_TILE * PARTICLE_TILE);
+
+        int[] t = particleTiles;
+        if (x0 != t[0] || y0 != t[1] || x1 != t[2] || y1 != t[3]) {
+            t[0] = x0;
+            t[1] = y0;
+            t[2] = x1;
+            t[3] = y1;
+            particleDirty = new Rectangle2D(x0, y0, x1 - x0, y1 - y0);
+        }
+        return particleDirty;
+    }
+
+    // The main drawing method called once per screen refresh
+    // Only the entity and particle layers change every frame
+    // Everything comes from 'state' (a copy), never from the controller: the game thread is changing that one
+    // alpha: how far between the previous tick (0) and the newest one (1) things are drawn
+    private void draw(RenderState state, double alpha) {
+        long renderStart = System.nanoTime();
+        GraphicsContext g = entities.getGraphicsContext2D();
+
+        // Erase last frame's players and bullets (and nothing else)
+        dirty.clear(g);
+
+        // Follow the players (this may repaint the background)
+        moveCameras(state, alpha);
+
+        // What happened in the game since the last frame (new sparks, the end of the match)
+        readEvents(state);
+
+        // Everything is drawn once per camera, and only if that camera can see it
+        for (int v = 0; v < (split ? 2 : 1); v++) {
+            Camera cam = cameras[v];
+            if (split) {
+                g.save();
+                clip(g, cam);
+            }
+
+            // 1. Draw Players
+            for (int i = 0; i < state.x.length; i++) {
+                double x = state.playerX(i, alpha), y = state.playerY(i, alpha);
+                if (cam.sees(x, y, PLAYER_REACH)) {
+                    drawPlayer(g, controller.getPlayer(i), state, i, cam.toScreenX(x), cam.toScreenY(y));
+                }
+            }
+
+            // 2. Draw Projectiles
+            // Each bullet is one copy of its weapon's pre-drawn glow sprite:
+            // no effects, no fill changes, no new objects. All sprites share the atlas image,
+            // so the whole loop is drawn from a single texture.
+            // The bullet grid of the state tells us which bullets are near the view, the rest of the world is never looked at.
+            int n = state.visibleBullets(cam.getX(), cam.getY(), cam.getX() + cam.getWidth(), cam.getY() + cam.getHeight(), visible);
+            for (int k = 0; k < n; k++) {
+                int i = visible[k];
+                SpriteAtlas.Region r = atlas.projectile(state.bulletWeapon[i]);
+                double x = state.bulletX(i, alpha), y = state.bulletY(i, alpha);
+                if (cam.sees(x, y, Math.max(r.width, r.height))) blit(g, r, cam.toScreenX(x), cam.toScreenY(y));
+            }
+
+            if (split) g.restore();
+        }
+
+        // A line between the two halves of a split screen
+        if (split) {
+            g.setFill(Color.BLACK);
+            g.fillRect(SCREEN_WIDTH / 2 - 2, 0, 4, SCREEN_HEIGHT);
+            dirty.add(SCREEN_WIDTH / 2 - 2, 0, 4, SCREEN_HEIGHT);
+        }
+
+        // 3. Particles: moved once per game tick that passed, then all drawn into the particle image in one pass
+        drawParticles(state, alpha);
+
+        // 4. Performance overlay (only repainted when a new one-second summary is ready)
+        if (showMetrics && metrics.getLatest() != shownWindow) drawMetrics();
+
+        long renderNanos = System.nanoTime() - renderStart;
+        metrics.record(GameMetrics.Phase.RENDER, renderNanos);
+        recordFrameEvent(renderNanos, state);
+
         // 5. Check for Game Over
-        if (!gameOver && (controller.getP1().isDead() || controller.getP2().isDead())) {
+        // The game thread tells us with an event. The game over screen waits until the state that includes
+        // the deciding tick is drawn, so the last hit is on the screen too.
+        if (!gameOver && overTick >= 0 && state.tick > overTick) {
             gameOver = true;
-            controller.stop(); // Stop the loop
+            loop.stop(); // Stop the loop (and wait for the game thread to finish)
+            finishMatch();
+
+            // The message goes on the HUD layer
+            g = hud.getGraphicsContext2D();
 
             // Center Text Alignment
             g.setTextAlign(javafx.scene.text.TextAlignment.CENTER);
@@ -146,106 +502,162 @@ public class GameScene {
 
             // Draw "GAME OVER"
             g.setFill(Color.WHITE);
-            g.setFont(javafx.scene.text.Font.font("Segoe UI", 80));
+            g.setFont(GAME_OVER_FONT);
             g.fillText("GAME OVER", 600, 200);
 
             // Draw Winner
-            g.setFont(javafx.scene.text.Font.font("Segoe UI", 40));
-            g.fillText(controller.getP1().isDead() ? "PLAYER 2 Wins!" : "PLAYER 1 Wins!", 600, 300);
-
-            // Create and style retry btn
-            Button retry = new Button("RETRY");
-            retry.setStyle("-fx-background-color: #00a8ff; -fx-text-fill: white; -fx-font-size: 20px; -fx-padding: 10 40; -fx-background-radius: 30; -fx-cursor: hand;");
-            retry.setOnAction(e -> stage.setScene(new SelectionScene(stage).getScene()));
+            g.setFont(WINNER_FONT);
+            g.fillText(winner == 0 ? "PLAYER 1 Wins!" : "PLAYER 2 Wins!", 600, 300);
 
+            // Show the retry btn
+            retry.setVisible(true);
+        }
+    }
 
-            retry.setTranslateY(150); // move btn down
-            ((StackPane) canvas.getParent()).getChildren().add(retry); // Add to screen
+    // Takes the new game events: shots, hits and deaths make particles, MATCH_OVER ends the match
+    private void readEvents(RenderState state) {
+        double tickRate = controller.getTickRate();
+        while (eventReader.poll()) {
+            double x = eventReader.x(), y = eventReader.y();
+            int p = eventReader.player();
+            switch (eventReader.type()) {
+                case SHOT -> {
+                    // Muzzle flash: a short cone of sparks in the direction the player faces
+                    if (p < 0) break;
+                    double angle = Math.atan2(state.dirY[p], state.dirX[p]);
+                    particles.burst(x, y, 10, angle, 0.45, 150, 420, ticks(0.06, tickRate), ticks(0.15, tickRate), MUZZLE_COLOR);
+                }
+                case DAMAGE -> {
+                    // Hit sparks all around the impact, more for harder hits
+                    int n = Math.min(40, 6 + eventReader.value());
+                    particles.burst(x, y, n, 0, Math.PI, 80, 360, ticks(0.15, tickRate), ticks(0.4, tickRate), HIT_COLOR);
+                }
+                case DEATH -> {
+                    // Death burst: a big red cloud with a white core
+                    particles.burst(x, y, 300, 0, Math.PI, 40, 520, ticks(0.5, tickRate), ticks(1.2, tickRate), DEATH_COLOR);
+                    particles.burst(x, y, 100, 0, Math.PI, 20, 200, ticks(0.3, tickRate), ticks(0.7, tickRate), 0xFFFFFF);
+                }
+                case MATCH_OVER -> {
+                    overTick = eventReader.tick();
+                    winner = p;
+                }
+                default -> { } // weapon switches don't show anything (the label changes already)
+            }
         }
     }
 
-    // Helper method to draw a specific player
-    private void drawPlayer(GraphicsContext g, GameCharacter c) {
+    // Seconds -> ticks (at least one)
+    private static int ticks(double seconds, double tickRate) {
+        return Math.max(1, (int) Math.round(seconds * tickRate));
+    }
 
-        g.save(); // Isolate effects for this player
+    // Moves the particles and draws them: all pixels are written into one buffer, and only the part
+    // that changed is handed to JavaFX (one image upload per frame, not one GraphicsContext call per particle)
+    private void drawParticles(RenderState state, double alpha) {
+        // One step per game tick since the last frame (a long pause doesn't replay seconds of sparks)
+        long steps = particleTick < 0 ? 0 : Math.min(8, state.tick - particleTick);
+        particleTick = state.tick;
+        double dt = controller.getTickSeconds();
+        for (long s = 0; s < steps; s++) particles.step(dt);
+
+        int w = (int) SCREEN_WIDTH, h = (int) SCREEN_HEIGHT;
+        particles.erase(particlePixels, w);
+        for (int v = 0; v < (split ? 2 : 1); v++) {
+            particles.render(particlePixels, w, h, cameras[v], alpha, dt);
+        }
+        if (particles.changed(particleRect) != null) particleBuffer.updateBuffer(particleUpdate);
+    }
 
-        // Choose shape based on character type
-        switch (c.getShape()) {
+    // Shows or hides the performance overlay (F3)
+    private void toggleMetrics() {
+        showMetrics = !showMetrics;
+        shownWindow = null;
+        hud.getGraphicsContext2D().clearRect(0, 0, 280, 150);
+    }
 
-            case CIRCLE -> { //MAGE
-                g.setFill(Color.web("#9b59b6"));
-                g.setEffect(new DropShadow(20, Color.web("#8e44ad")));
-                g.fillOval(c.getX() - 20, c.getY() - 20, 40, 40);
+    // Paints the last one-second summary in the top left corner of the HUD layer
+    private void drawMetrics() {
+        MetricsWindow w = metrics.getLatest();
+        shownWindow = w;
+
+        GraphicsContext g = hud.getGraphicsContext2D();
+        g.clearRect(0, 0, 280, 150);
+        g.setFill(Color.rgb(0, 0, 0, 0.6));
+        g.fillRect(5, 5, 270, 140);
+
+        g.setFill(Color.LIME);
+        g.setFont(OVERLAY_FONT);
+        g.setTextAlign(javafx.scene.text.TextAlignment.LEFT);
+        g.setTextBaseline(javafx.geometry.VPos.TOP);
+
+        g.fillText(String.format("FPS %.0f   ticks/s %.0f", w.rate(GameMetrics.Phase.FRAME), w.rate(GameMetrics.Phase.TICK)), 12, 10);
+        g.fillText(String.format("frame  p50 %6.2f  p99 %6.2f  max %6.2f ms",
+                ms(w.p50Nanos(GameMetrics.Phase.FRAME)), ms(w.p99Nanos(GameMetrics.Phase.FRAME)), ms(w.maxNanos(GameMetrics.Phase.FRAME))), 12, 28);
+        g.fillText(String.format("tick   p99 %6.3f ms", ms(w.p99Nanos(GameMetrics.Phase.TICK))), 12, 46);
+        g.fillText(String.format("input %5.3f  sim %5.3f  coll %5.3f ms", ms(w.p99Nanos(GameMetrics.Phase.INPUT)),
+                ms(w.p99Nanos(GameMetrics.Phase.SIMULATION)), ms(w.p99Nanos(GameMetrics.Phase.COLLISION))), 12, 64);
+        g.fillText(String.format("render p99 %6.3f ms", ms(w.p99Nanos(GameMetrics.Phase.RENDER))), 12, 82);
+        g.fillText(String.format("bullets %d", w.liveProjectiles), 12, 100);
+        g.fillText(w.allocatedBytesPerSecond < 0 ? "alloc n/a"
+                : String.format("alloc %.2f MB/s", w.allocatedBytesPerSecond / (1024 * 1024)), 12, 118);
+    }
 
-                g.setEffect(null);
-                g.setStroke(Color.WHITE);
-                g.setLineWidth(1);
-                g.strokeOval(c.getX() - 20, c.getY() - 20, 40, 40);
-            }
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
 
-            case SQUARE -> { //WARRIOR
-                g.setFill(Color.web("#3498db"));
-                g.setStroke(Color.web("#ecf0f1"));
-                g.setLineWidth(4);
-                g.fillRect(c.getX() - 20, c.getY() - 20, 40, 40);
-                g.strokeRect(c.getX() - 20, c.getY() - 20, 40, 40);
-            }
+    // Java Flight Recorder event for this frame (skipped when no recording wants it)
+    private void recordFrameEvent(long renderNanos, RenderState state) {
+        FrameEvent e = new FrameEvent();
+        if (!e.isEnabled()) return;
+        e.frameNanos = loop.getLastFrameNanos();
+        e.renderNanos = renderNanos;
+        e.ticks = loop.getTicksLastFrame();
+        e.projectiles = state.bullets;
+        e.commit();
+    }
 
-            case TRIANGLE -> { //ARCHER
-                double[] xPoints = {
-                        c.getX(),
-                        c.getX() - 22,
-                        c.getX() + 22
-                };
-                double[] yPoints = {
-                        c.getY() - 22,
-                        c.getY() + 22,
-                        c.getY() + 22
-                };
-
-                g.setFill(Color.web("#2ecc71"));
-                g.setStroke(Color.web("#27ae60"));
-                g.setLineWidth(2);
-                g.fillPolygon(xPoints, yPoints, 3);
-                g.strokePolygon(xPoints, yPoints, 3);
-            }
-        }
+    // Helper method to draw a specific player
+    // The shape and the labels come pre-drawn from the sprite atlas, so this is mostly copying pixels
+    // c is only used for things that never change (shape, name), the rest comes from the state
+    // (x, y) is where on the screen the player is drawn
+    private void drawPlayer(GraphicsContext g, GameCharacter c, RenderState state, int i, double x, double y) {
 
-        g.restore(); // Clear effects
+        // Shape (with its glow) based on character type
+        // The shape sprite is big enough to also cover the direction line
+        blit(g, atlas.shape(c.getShape()), x, y);
 
         // Draw direction indicator
         g.setStroke(Color.WHITE);
         g.setLineWidth(2);
         g.strokeLine(
-                c.getX(),
-                c.getY(),
-                c.getX() + c.getDirX() * 30,
-                c.getY() + c.getDirY() * 30
+                x,
+                y,
+                x + state.dirX[i] * 30,
+                y + state.dirY[i] * 30
         );
 
         // Draw Name
-        g.setFill(Color.WHITE);
-        g.setFont(javafx.scene.text.Font.font("Segoe UI", javafx.scene.text.FontWeight.BOLD, 12));
-        g.fillText(c.getName(), c.getX() - 20, c.getY() - 35);
+        blit(g, atlas.nameLabel(c), x - 20, y - 35);
 
         // Draw Weapon Name
-        g.setFont(javafx.scene.text.Font.font("Segoe UI", javafx.scene.text.FontWeight.NORMAL, 10));
-        g.fillText("[" + c.getWeapon().getName() + "]", c.getX() - 18, c.getY() + 45);
+        blit(g, atlas.weaponLabel(c, state.weapon[i]), x - 18, y + 45);
 
         // Health bar logic
-        double barX = c.getX() - 25;
-        double barY = c.getY() - 65;
+        double barX = x - 25;
+        double barY = y - 65;
         double barWidth = 50;
         double barHeight = 8;
 
         // Background (Red)
-        g.setFill(Color.web("#c0392b"));
+        g.setFill(HP_BACK);
         g.fillRoundRect(barX, barY, barWidth, barHeight, 5, 5);
+        dirty.add(barX, barY, barWidth, barHeight);
 
         // Foreground (Green Gradient)
         g.setFill(HP_GRADIENT);
         double maxHealth = 100.0;
-        double healthPercentage = c.getHealth() / maxHealth;
+        double healthPercentage = state.health[i] / maxHealth;
         double healthWidth = barWidth * healthPercentage;
 
         // Safety Clamps
@@ -258,11 +670,16 @@ public class GameScene {
         g.setStroke(Color.WHITE);
         g.setLineWidth(1);
         g.strokeRoundRect(barX, barY, barWidth, barHeight, 5, 5);
+    }
 
-
+    // Copies a sprite from the atlas and remembers where, so it gets erased next frame
+    private void blit(GraphicsContext g, SpriteAtlas.Region r, double x, double y) {
+        atlas.draw(g, r, x, y);
+        dirty.add(x - r.originX, y - r.originY, r.width, r.height);
     }
 
 
     public Scene getScene() { return scene; }
+    public GameMetrics getMetrics() { return metrics; }
 }
 
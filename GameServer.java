@@ -0,0 +1,373 @@
+package com.ozyra.battlearena.net;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.ProjectileListener;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Projectile;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.ozyra.battlearena.net.NetProtocol.*;
+
+// Runs the real match for players on other computers ("authoritative" server: only the server decides what happens).
+//
+// Every tick it:
+//   1. reads all packets that arrived (non-blocking, never waits): new players and their buttons
+//   2. runs one GameController tick with the latest buttons of every player
+//   3. every 'sendEvery' ticks sends each client a snapshot (see NetProtocol)
+//
+// The match starts when every player slot has a client. Players join in order (first client = P1).
+// Work per tick for the network part only depends on the number of players and how many bullets were
+// fired or hit something, not on how many bullets are flying.
+public class GameServer implements ProjectileListener, AutoCloseable {
+
+    public static final int DEFAULT_SEND_EVERY = 2; // 120 ticks/s -> 60 snapshots/s
+
+    // More packets per snapshot are only sent while a client is catching up on bullet events
+    private static final int MAX_PACKETS_PER_SNAPSHOT = 8;
+
+    private final GameController game;
+    private final DatagramChannel channel;
+    private final int sendEvery;
+    private final int playerCount;
+
+    // ---- Clients (index = player number) ----
+    private final SocketAddress[] clients;
+    private final int[] held; // buttons held right now
+    private final int[] latched; // buttons pressed since the last tick (short taps are not lost)
+    private final int[] ackTick; // newest snapshot the client confirmed (-1 = none)
+    private final int[] ackSeq; // number of bullet events the client confirmed
+    private final long[] bytesSent;
+    private final boolean[] lost; // the client missed more events than we keep, it can't follow the match anymore
+    private final int[] inputs;
+
+    // ---- Bullet events (ring buffer, 'eventCount' = number of events so far) ----
+    private final byte[] evKind = new byte[EVENT_CAPACITY];
+    private final int[] evTick = new int[EVENT_CAPACITY];
+    private final int[] evId = new int[EVENT_CAPACITY];
+    private final byte[] evWeapon = new byte[EVENT_CAPACITY];
+    private final byte[] evOwner = new byte[EVENT_CAPACITY];
+    private final double[] evX = new double[EVENT_CAPACITY], evY = new double[EVENT_CAPACITY];
+    private final double[] evVx = new double[EVENT_CAPACITY], evVy = new double[EVENT_CAPACITY];
+    private int eventCount;
+
+    // ---- Player states of the last snapshots (for sending only the changes) ----
+    private final int[] histTick = new int[HISTORY];
+    private final float[][] histX, histY;
+    private final byte[][] histDir, histWeapon;
+    private final int[][] histHealth;
+
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MAX_PACKET);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(MAX_PACKET);
+
+    private volatile boolean running;
+    private volatile boolean paused;
+    private Thread thread;
+
+    // Timing (for checking that the server cost stays flat)
+    private long steps, networkNanos, gameNanos;
+
+    // Listens on 'address' (port 0 = any free port, see getAddress())
+    public GameServer(GameController game, InetSocketAddress address, int sendEvery) throws IOException {
+        this.game = game;
+        this.sendEvery = sendEvery;
+        this.playerCount = game.getPlayers().size();
+        this.channel = DatagramChannel.open();
+        channel.configureBlocking(false); // receive() returns null instead of waiting
+        channel.bind(address);
+
+        clients = new SocketAddress[playerCount];
+        held = new int[playerCount];
+        latched = new int[playerCount];
+        ackTick = new int[playerCount];
+        ackSeq = new int[playerCount];
+        bytesSent = new long[playerCount];
+        lost = new boolean[playerCount];
+        inputs = new int[playerCount];
+        Arrays.fill(ackTick, -1);
+        Arrays.fill(histTick, -1);
+
+        histX = new float[HISTORY][playerCount];
+        histY = new float[HISTORY][playerCount];
+        histDir = new byte[HISTORY][playerCount];
+        histWeapon = new byte[HISTORY][playerCount];
+        histHealth = new int[HISTORY][playerCount];
+
+        game.setProjectileListener(this);
+    }
+
+    // Runs the server on its own thread, one step per tick
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        long tickNanos = 1_000_000_000L / game.getTickRate();
+        long next = System.nanoTime();
+        while (running) {
+            try {
+                step();
+            } catch (IOException e) {
+                System.err.println("Game server: " + e.getMessage());
+            }
+            next += tickNanos;
+            long wait;
+            while (running && (wait = next - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+        }
+    }
+
+    // One server tick: read packets, simulate, send snapshots. Can also be called directly instead of start().
+    public void step() throws IOException {
+        long t0 = System.nanoTime();
+        receive();
+
+        long t1 = System.nanoTime();
+        boolean simulate = !paused && allJoined() && !game.isOver();
+        if (simulate) {
+            for (int p = 0; p < playerCount; p++) {
+                inputs[p] = held[p] | latched[p];
+                latched[p] = 0;
+            }
+            game.tick(inputs);
+        }
+
+        long t2 = System.nanoTime();
+        // Snapshots at a fixed rate (and every step once the match has stopped, so clients see the end)
+        if (allJoined() && (!simulate || game.getTick() % sendEvery == 0)) {
+            sendSnapshots();
+        }
+
+        long t3 = System.nanoTime();
+        steps++;
+        networkNanos += (t1 - t0) + (t3 - t2);
+        gameNanos += t2 - t1;
+    }
+
+    // ---- Receiving ----
+
+    private void receive() throws IOException {
+        SocketAddress from;
+        while ((from = channel.receive(in.clear())) != null) {
+            in.flip();
+            if (!in.hasRemaining()) continue;
+
+            byte type = in.get();
+            if (type == HELLO) {
+                welcome(from);
+            } else if (type == INPUT && in.remaining() >= 12) {
+                int p = clientIndex(from);
+                if (p < 0) continue; // not one of our players
+
+                int tick = in.getInt();
+                int seq = in.getInt();
+                int buttons = in.getInt();
+                ackTick[p] = Math.max(ackTick[p], tick);
+                ackSeq[p] = Math.min(eventCount, Math.max(ackSeq[p], seq));
+                held[p] = buttons;
+                latched[p] |= buttons;
+            }
+        }
+    }
+
+    // Gives a new client the next free player slot (or repeats the answer if its WELCOME got lost)
+    private void welcome(SocketAddress from) throws IOException {
+        int p = clientIndex(from);
+        if (p < 0) {
+            for (int i = 0; i < playerCount && p < 0; i++) {
+                if (clients[i] == null) p = i;
+            }
+            if (p < 0) return; // match is full
+            clients[p] = from;
+        }
+
+        out.clear();
+        out.put(WELCOME);
+        out.put((byte) p);
+        putMatch(out, game);
+        send(p, out.flip());
+    }
+
+    private int clientIndex(SocketAddress address) {
+        for (int p = 0; p < playerCount; p++) {
+            if (address.equals(clients[p])) return p;
+        }
+        return -1;
+    }
+
+    private boolean allJoined() {
+        for (SocketAddress c : clients) {
+            if (c == null) return false;
+        }
+        return true;
+    }
+
+    // ---- Sending ----
+
+    private void sendSnapshots() throws IOException {
+        int tick = (int) game.getTick();
+        int slot = tick % HISTORY;
+
+        // 1. Remember the players as they are in this snapshot
+        histTick[slot] = tick;
+        for (int p = 0; p < playerCount; p++) {
+            GameCharacter c = game.getPlayer(p);
+            histX[slot][p] = (float) c.getX();
+            histY[slot][p] = (float) c.getY();
+            histDir[slot][p] = packDirection(c.getDirX(), c.getDirY());
+            histHealth[slot][p] = c.getHealth();
+            histWeapon[slot][p] = (byte) c.getWeapon().getId();
+        }
+
+        // 2. One snapshot per client, compared against the last snapshot that client confirmed
+        for (int client = 0; client < playerCount; client++) {
+            if (lost[client]) continue;
+            if (eventCount - ackSeq[client] > EVENT_CAPACITY) {
+                // The events the client is missing were already overwritten: it can't catch up anymore
+                System.err.println("Game server: player " + (client + 1) + " fell too far behind and gets no more snapshots");
+                lost[client] = true;
+                continue;
+            }
+
+            int base = ackTick[client];
+            boolean hasBase = base >= 0 && tick - base < HISTORY && histTick[base % HISTORY] == base;
+            int baseSlot = hasBase ? base % HISTORY : -1;
+
+            // Usually one packet; a few more while the client still misses many bullet events
+            int seq = ackSeq[client];
+            int packets = 0;
+            do {
+                seq = writeSnapshot(tick, slot, baseSlot, hasBase ? base : -1, seq);
+                send(client, out.flip());
+                packets++;
+            } while (seq < eventCount && packets < MAX_PACKETS_PER_SNAPSHOT);
+        }
+    }
+
+    // Writes one SNAPSHOT packet into 'out', with the bullet events from 'firstSeq' on (as many as fit).
+    // Returns the number of the first event that didn't fit.
+    private int writeSnapshot(int tick, int slot, int baseSlot, int baseTick, int firstSeq) {
+        out.clear();
+        out.put(SNAPSHOT);
+        out.putInt(tick);
+        out.putInt(baseTick);
+        out.putInt(eventCount);
+        out.putInt(firstSeq);
+
+        // Players: a byte that says which fields follow, then only those fields
+        for (int p = 0; p < playerCount; p++) {
+            int mask = ALL_FIELDS;
+            if (baseSlot >= 0) {
+                mask = 0;
+                if (histX[slot][p] != histX[baseSlot][p]) mask |= HAS_X;
+                if (histY[slot][p] != histY[baseSlot][p]) mask |= HAS_Y;
+                if (histDir[slot][p] != histDir[baseSlot][p]) mask |= HAS_DIR;
+                if (histHealth[slot][p] != histHealth[baseSlot][p]) mask |= HAS_HEALTH;
+                if (histWeapon[slot][p] != histWeapon[baseSlot][p]) mask |= HAS_WEAPON;
+            }
+            out.put((byte) mask);
+            if ((mask & HAS_X) != 0) out.putFloat(histX[slot][p]);
+            if ((mask & HAS_Y) != 0) out.putFloat(histY[slot][p]);
+            if ((mask & HAS_DIR) != 0) out.put(histDir[slot][p]);
+            if ((mask & HAS_HEALTH) != 0) putVarint(out, histHealth[slot][p]);
+            if ((mask & HAS_WEAPON) != 0) out.put(histWeapon[slot][p]);
+        }
+
+        // Bullet events, oldest first
+        int countPos = out.position();
+        out.putShort((short) 0);
+        int seq = firstSeq;
+        while (seq < eventCount && out.remaining() >= MAX_EVENT_BYTES) {
+            int i = seq & (EVENT_CAPACITY - 1);
+            out.put(evKind[i]);
+            putVarint(out, tick - evTick[i]);
+            putVarint(out, evId[i]);
+            if (evKind[i] == FIRED) {
+                out.putDouble(evX[i]);
+                out.putDouble(evY[i]);
+                out.putDouble(evVx[i]);
+                out.putDouble(evVy[i]);
+                out.put(evWeapon[i]);
+                out.put(evOwner[i]);
+            }
+            seq++;
+        }
+        out.putShort(countPos, (short) (seq - firstSeq));
+        return seq;
+    }
+
+    private void send(int client, ByteBuffer packet) throws IOException {
+        bytesSent[client] += packet.remaining();
+        channel.send(packet, clients[client]);
+    }
+
+    // ---- Bullet events (called by the GameController during tick) ----
+
+    @Override
+    public void projectileFired(Projectile p) {
+        int i = addEvent(FIRED, p);
+        evX[i] = p.getX();
+        evY[i] = p.getY();
+        evVx[i] = p.getVx();
+        evVy[i] = p.getVy();
+        evWeapon[i] = (byte) (p.getWeapon() == null ? -1 : p.getWeapon().getId());
+        evOwner[i] = (byte) (p.getOwner() == null ? -1 : game.getPlayers().indexOf(p.getOwner()));
+    }
+
+    @Override
+    public void projectileHit(Projectile p, GameCharacter target) {
+        addEvent(HIT, p);
+    }
+
+    private int addEvent(byte kind, Projectile p) {
+        int i = eventCount & (EVENT_CAPACITY - 1);
+        evKind[i] = kind;
+        evTick[i] = (int) game.getTick();
+        evId[i] = p.getId();
+        eventCount++;
+        return i;
+    }
+
+    // ---- Control and statistics ----
+
+    // While paused the match doesn't go on, but snapshots are still sent
+    public void setPaused(boolean paused) { this.paused = paused; }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    public GameController getGame() { return game; }
+    public long getBytesSent(int player) { return bytesSent[player]; }
+    public int getEventCount() { return eventCount; }
+
+    // Average time per step spent on the network (reading + writing packets) and on the game itself
+    public double getAverageNetworkMicros() { return steps == 0 ? 0 : networkNanos / 1e3 / steps; }
+    public double getAverageGameMicros() { return steps == 0 ? 0 : gameNanos / 1e3 / steps; }
+
+    public void resetStatistics() {
+        steps = networkNanos = gameNanos = 0;
+        Arrays.fill(bytesSent, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+}
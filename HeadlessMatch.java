@@ -0,0 +1,32 @@
+package com.ozyra.battlearena.controller;
+
+// Plays a match without a window, as fast as the CPU allows.
+public final class HeadlessMatch {
+
+    private HeadlessMatch() {
+    }
+
+    // Ticks 'game' until somebody dies or 'maxTicks' steps have passed.
+    // sources[i] presses the buttons of player i. Returns how many ticks were played.
+    public static long play(GameController game, InputSource[] sources, long maxTicks) {
+        return play(game, sources, maxTicks, null);
+    }
+
+    // Same, and saves every tick's buttons into 'recorder' (null = don't record)
+    public static long play(GameController game, InputSource[] sources, long maxTicks, ReplayRecorder recorder) {
+        int[] inputs = new int[sources.length];
+        long start = game.getTick();
+
+        while (!game.isOver() && game.getTick() - start < maxTicks) {
+            // No real clock here: every event that has arrived belongs to this tick
+            InputSource.beginTickAll(sources, Long.MAX_VALUE);
+            for (int i = 0; i < sources.length; i++) {
+                inputs[i] = sources[i].poll(game, i);
+            }
+            if (recorder != null) recorder.record(inputs);
+            game.tick(inputs);
+        }
+
+        return game.getTick() - start;
+    }
+}
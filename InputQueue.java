@@ -0,0 +1,135 @@
+package com.ozyra.battlearena.controller;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A queue of timestamped button events ("player 1 pressed SHOOT at time t").
+//
+// The keyboard thread only ADDS events, the game only TAKES them, once per tick:
+// snapshot(deadline, frame) applies every event up to 'deadline' and writes the buttons
+// each player holds into 'frame'. So key events never change the input in the middle of a tick.
+//
+// It is a lock-free ring buffer for exactly one producer and one consumer thread,
+// built from plain arrays (no objects per event, no boxing, no hashing).
+// When the ring is full new events are dropped. "Let go of everything" (releaseAll) is not an event
+// but a separate time stamp, so it always gets through, even then.
+public class InputQueue {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int mask; // capacity - 1 (capacity is a power of two)
+    private final long[] times; // when the event happened (System.nanoTime)
+    private final int[] players; // which player
+    private final int[] buttons; // which PlayerInput bit
+    private final boolean[] pressed; // true = pressed, false = released
+
+    private final AtomicLong head = new AtomicLong(); // next event to read (only the consumer moves it)
+    private final AtomicLong tail = new AtomicLong(); // next free slot (only the producer moves it)
+    private final AtomicLong releaseAt = new AtomicLong(NO_RELEASE); // time of the last releaseAll not applied yet
+    private static final long NO_RELEASE = Long.MIN_VALUE;
+
+    // Consumer side state
+    private final int[] held; // buttons currently held per player
+    private final int[] tapped; // buttons pressed since the last snapshot (so short taps are never lost)
+    private volatile long dropped; // events thrown away because the queue was full
+
+    public InputQueue(int playerCount) {
+        this(playerCount, DEFAULT_CAPACITY);
+    }
+
+    public InputQueue(int playerCount, int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+
+        this.mask = capacity - 1;
+        this.times = new long[capacity];
+        this.players = new int[capacity];
+        this.buttons = new int[capacity];
+        this.pressed = new boolean[capacity];
+        this.held = new int[playerCount];
+        this.tapped = new int[playerCount];
+    }
+
+    // ---- Producer (keyboard thread) ----
+
+    // Adds an event. Returns false (and drops it) if the game hasn't read the older events yet.
+    public boolean post(int player, int button, boolean isPressed, long nanos) {
+        if (player < 0 || player >= held.length) return false;
+
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+
+        int i = (int) (t & mask);
+        times[i] = nanos;
+        players[i] = player;
+        buttons[i] = button;
+        pressed[i] = isPressed;
+        tail.lazySet(t + 1); // publish: the consumer sees the slot only after it is completely written
+        return true;
+    }
+
+    // ---- Consumer (game thread) ----
+
+    // Applies every event that happened up to 'deadlineNanos' and writes this tick's buttons into 'frame'.
+    // A button that was pressed and released again before the deadline still counts for this tick.
+    public void snapshot(long deadlineNanos, int[] frame) {
+        long h = head.get();
+        long t = tail.get();
+        long release = releaseAt.get();
+        boolean releasing = release != NO_RELEASE && release <= deadlineNanos; // a releaseAll belongs to this tick
+
+        while (h < t) {
+            int i = (int) (h & mask);
+            if (times[i] > deadlineNanos) break; // belongs to a later tick
+
+            // Events before the releaseAll are applied first, then everything is let go, then the later ones
+            if (releasing && times[i] > release) {
+                releaseHeld();
+                releasing = false;
+                releaseAt.compareAndSet(release, NO_RELEASE); // (unless a newer one came in meanwhile)
+            }
+
+            int p = players[i];
+            if (pressed[i]) {
+                held[p] |= buttons[i];
+                tapped[p] |= buttons[i];
+            } else {
+                held[p] &= ~buttons[i];
+            }
+            h++;
+        }
+        head.lazySet(h); // free the slots for the producer
+        if (releasing) {
+            releaseHeld();
+            releaseAt.compareAndSet(release, NO_RELEASE);
+        }
+
+        for (int p = 0; p < held.length && p < frame.length; p++) {
+            frame[p] = held[p] | tapped[p];
+            tapped[p] = 0;
+        }
+    }
+
+    // Lets go of every button (e.g. when the window loses focus). Called by the producer; never dropped.
+    public void releaseAll(long nanos) {
+        releaseAt.set(nanos);
+    }
+
+    private void releaseHeld() {
+        Arrays.fill(held, 0);
+    }
+
+    // Forgets every event and button (e.g. before a new match). Only call it while the consumer is not running:
+    // it moves the consumer's side of the ring.
+    public void clear() {
+        head.set(tail.get());
+        releaseAt.set(NO_RELEASE);
+        Arrays.fill(held, 0);
+        Arrays.fill(tapped, 0);
+    }
+
+    public int getPlayerCount() { return held.length; }
+    public long getDropped() { return dropped; }
+}
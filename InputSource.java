@@ -0,0 +1,30 @@
+package com.ozyra.battlearena.controller;
+
+// Anything that can "press buttons" for a player: the keyboard, a script, a bot...
+// The engine asks every source once per tick.
+public interface InputSource {
+
+    // Returns the buttons (PlayerInput bits) that 'player' (0 = P1, 1 = P2) holds this tick
+    int poll(GameController game, int player);
+
+    // Called once per tick before poll(...), with the wall clock time (System.nanoTime)
+    // that this tick simulates up to. Sources that read real-time events (the keyboard)
+    // take exactly the events up to this moment. Scripts and bots can ignore it.
+    default void beginTick(long deadlineNanos) {
+    }
+
+    // Calls beginTick on every source in 'sources' once
+    // (one keyboard or one replay can play for several players, but must only start each tick once)
+    static void beginTickAll(InputSource[] sources, long deadlineNanos) {
+        for (int i = 0; i < sources.length; i++) {
+            boolean first = true;
+            for (int j = 0; j < i; j++) {
+                if (sources[j] == sources[i]) {
+                    first = false;
+                    break;
+                }
+            }
+            if (first) sources[i].beginTick(deadlineNanos);
+        }
+    }
+}
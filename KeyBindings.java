@@ -0,0 +1,104 @@
+package com.ozyra.battlearena.scenes;
+
+import com.ozyra.battlearena.controller.PlayerInput;
+import javafx.scene.input.KeyCode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+// Which keyboard key is which button of which player.
+//
+// Looking a key up is just two array reads by the key's number (KeyCode.ordinal()),
+// no HashSet and no boxing. Any number of players can be bound.
+//
+// Bindings can be loaded from a properties file, one key per line:
+//   W = 1 UP
+//   F = 1 SHOOT
+//   UP = 2 UP
+// (key name = player number, button name). See PlayerInput for the button names.
+public class KeyBindings {
+
+    private static final KeyCode[] ALL_KEYS = KeyCode.values();
+
+    private final int[] playerOf = new int[ALL_KEYS.length]; // -1 = key not used
+    private final int[] buttonOf = new int[ALL_KEYS.length];
+    private int playerCount;
+
+    public KeyBindings() {
+        Arrays.fill(playerOf, -1);
+    }
+
+    // The classic layout: P1 = WASD, F to shoot, 1-3 for weapons; P2 = arrows, L to shoot, B/N/M for weapons
+    public static KeyBindings defaults() {
+        KeyBindings b = new KeyBindings();
+
+        // ---- Player 1 ----
+        b.bind(KeyCode.W, 0, PlayerInput.UP);
+        b.bind(KeyCode.S, 0, PlayerInput.DOWN);
+        b.bind(KeyCode.A, 0, PlayerInput.LEFT);
+        b.bind(KeyCode.D, 0, PlayerInput.RIGHT);
+        b.bind(KeyCode.F, 0, PlayerInput.SHOOT);
+        b.bind(KeyCode.DIGIT1, 0, PlayerInput.WEAPON_1);
+        b.bind(KeyCode.DIGIT2, 0, PlayerInput.WEAPON_2);
+        b.bind(KeyCode.DIGIT3, 0, PlayerInput.WEAPON_3);
+
+        // ---- Player 2 ----
+        b.bind(KeyCode.UP, 1, PlayerInput.UP);
+        b.bind(KeyCode.DOWN, 1, PlayerInput.DOWN);
+        b.bind(KeyCode.LEFT, 1, PlayerInput.LEFT);
+        b.bind(KeyCode.RIGHT, 1, PlayerInput.RIGHT);
+        b.bind(KeyCode.L, 1, PlayerInput.SHOOT);
+        b.bind(KeyCode.B, 1, PlayerInput.WEAPON_1);
+        b.bind(KeyCode.N, 1, PlayerInput.WEAPON_2);
+        b.bind(KeyCode.M, 1, PlayerInput.WEAPON_3);
+
+        return b;
+    }
+
+    // Loads bindings from 'file', or returns the defaults if the file doesn't exist
+    public static KeyBindings loadOrDefaults(Path file) {
+        if (!Files.exists(file)) return defaults();
+
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Properties props = new Properties();
+            props.load(in);
+
+            KeyBindings b = new KeyBindings();
+            for (String key : props.stringPropertyNames()) {
+                String[] parts = props.getProperty(key).trim().split("\\s+");
+                if (parts.length != 2) throw new IllegalArgumentException("Expected '<player> <button>' for key " + key);
+                b.bind(KeyCode.valueOf(key.trim()), Integer.parseInt(parts[0]) - 1, PlayerInput.fromName(parts[1]));
+            }
+            return b;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load key bindings from " + file + ", using defaults: " + e.getMessage());
+            return defaults();
+        }
+    }
+
+    // Makes 'key' press 'button' (a PlayerInput bit) for 'player' (0 = P1)
+    public void bind(KeyCode key, int player, int button) {
+        if (player < 0) throw new IllegalArgumentException("player must be >= 0: " + player);
+        playerOf[key.ordinal()] = player;
+        buttonOf[key.ordinal()] = button;
+        playerCount = Math.max(playerCount, player + 1);
+    }
+
+    public void unbind(KeyCode key) {
+        playerOf[key.ordinal()] = -1;
+    }
+
+    // The player a key belongs to, or -1 if the key is not bound
+    public int playerOf(KeyCode key) { return playerOf[key.ordinal()]; }
+
+    // The button a key presses (only meaningful if playerOf(key) >= 0)
+    public int buttonOf(KeyCode key) { return buttonOf[key.ordinal()]; }
+
+    // Number of players that have at least one key
+    public int getPlayerCount() { return playerCount; }
+}
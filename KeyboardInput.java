@@ -0,0 +1,59 @@
+package com.ozyra.battlearena.scenes;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.InputQueue;
+import com.ozyra.battlearena.controller.InputSource;
+import javafx.scene.input.KeyCode;
+
+// Plays for every player that has keys in the KeyBindings.
+//
+// Key events are not applied right away: they go into an InputQueue with the time they happened.
+// Once per tick the game takes a snapshot of all events up to that tick,
+// so every tick sees one fixed set of buttons per player.
+public class KeyboardInput implements InputSource {
+
+    private final KeyBindings bindings;
+    private final InputQueue queue;
+    private final int[] frame; // this tick's buttons per player
+
+    public KeyboardInput(KeyBindings bindings, int playerCount) {
+        this.bindings = bindings;
+        this.queue = new InputQueue(playerCount);
+        this.frame = new int[playerCount];
+    }
+
+    // Called by the scene's key listeners (JavaFX thread)
+    public void keyPressed(KeyCode key) {
+        post(key, true);
+    }
+
+    public void keyReleased(KeyCode key) {
+        post(key, false);
+    }
+
+    // Lets go of all keys (e.g. the window lost focus and we won't see the key releases)
+    public void releaseAll() {
+        queue.releaseAll(System.nanoTime());
+    }
+
+    // Forgets all queued key events and held keys (call it while the game loop is stopped, e.g. before a match)
+    public void clear() {
+        queue.clear();
+    }
+
+    private void post(KeyCode key, boolean pressed) {
+        int player = bindings.playerOf(key);
+        if (player < 0) return; // not a game key
+        queue.post(player, bindings.buttonOf(key), pressed, System.nanoTime());
+    }
+
+    @Override
+    public void beginTick(long deadlineNanos) {
+        queue.snapshot(deadlineNanos, frame);
+    }
+
+    @Override
+    public int poll(GameController game, int player) {
+        return player < frame.length ? frame[player] : 0;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ozyra.battlearena.metrics;
+
+// Counts how often each duration (in nanoseconds) happened, so we can ask for p50 / p99 / max later.
+//
+// Values are sorted into "buckets": 16 buckets for every power of two (like HdrHistogram),
+// which keeps every bucket within ~6% of the real value. Recording is just a few
+// bit operations and one array increment - no objects, no locks.
+//
+// Only ONE thread may record into a histogram. Other threads may read it at any time
+// (they might see a value that is one or two records behind, which is fine for metrics).
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 16; // buckets per power of two
+    private static final int SUB_BITS = 4; // log2(SUB_BUCKETS)
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private volatile long total; // number of recorded values (volatile: readers see the latest count)
+    private volatile long max; // largest value ever recorded
+
+    // Adds one duration
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[bucketOf(nanos)]++;
+        if (nanos > max) max = nanos;
+        total = total + 1; // only one writer, so this is safe
+    }
+
+    // Copies the current bucket counts into 'into' (must have getBucketCount() entries)
+    public void copyCounts(long[] into) {
+        System.arraycopy(counts, 0, into, 0, BUCKETS);
+    }
+
+    public long getTotal() { return total; }
+    public long getMax() { return max; }
+
+    public static int getBucketCount() { return BUCKETS; }
+
+    // ---- Bucket math ----
+
+    // Which bucket a value goes into
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value; // small values are counted exactly
+        int msb = 63 - Long.numberOfLeadingZeros(value); // position of the highest 1 bit
+        int sub = (int) (value >>> (msb - SUB_BITS)) & (SUB_BUCKETS - 1); // next 4 bits after it
+        return (msb - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // The smallest value that lands in 'bucket'
+    static long lowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int msb = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) SUB_BUCKETS + sub) << (msb - SUB_BITS);
+    }
+
+    // The value at percentile 'p' (0..100) of a set of bucket counts, or 0 if they are empty.
+    // We return the middle of the bucket, which is at most ~3% off.
+    public static long percentile(long[] counts, long total, double p) {
+        if (total <= 0) return 0;
+        long rank = (long) Math.ceil(p / 100.0 * total);
+        if (rank < 1) rank = 1;
+
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= rank) {
+                long low = lowestValue(b);
+                long high = b + 1 < BUCKETS ? lowestValue(b + 1) : low;
+                return (low + high) / 2;
+            }
+        }
+        return lowestValue(BUCKETS - 1);
+    }
+}
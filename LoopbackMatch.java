@@ -0,0 +1,127 @@
+package com.ozyra.battlearena.tools;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.ProjectilePool;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Projectile;
+import com.ozyra.battlearena.model.Weapon;
+import com.ozyra.battlearena.net.GameClient;
+import com.ozyra.battlearena.net.GameServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Command line tool: a network match inside one program.
+// A GameServer runs on its own thread, two GameClients (played by scripts) talk to it over 127.0.0.1.
+// At the end the bullets of both clients are compared with the server's: they must match exactly.
+//
+// Usage: LoopbackMatch [seconds] [extraBullets]
+//   extraBullets = bullets added at the start that stay alive, to check that the traffic doesn't grow with them
+public class LoopbackMatch {
+
+    public static void main(String[] args) throws IOException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int extra = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+
+        GameCharacter p1 = GameCharacter.create("Warrior", "P1", 100, 300, Weapon.createWeapon("Bow"));
+        GameCharacter p2 = GameCharacter.create("Mage", "P2", 1100, 300, Weapon.createWeapon("Magic"));
+        GameController game = new GameController(1200, 600, p1, p2, Math.max(ProjectilePool.DEFAULT_CAPACITY, 2 * extra), 120);
+
+        try (GameServer server = new GameServer(game, new InetSocketAddress("127.0.0.1", 0), GameServer.DEFAULT_SEND_EVERY)) {
+            // Lots of bullets standing still, each in the half of the player who "fired" it,
+            // so nobody can ever walk into them: they stay alive for the whole test
+            SplittableRandom random = new SplittableRandom(1);
+            for (int i = 0; i < extra; i++) {
+                boolean left = i % 2 == 0;
+                double x = left ? random.nextDouble(10, 560) : random.nextDouble(640, 1190);
+                game.addProjectile(new Projectile(x, random.nextDouble(10, 590), 0, 0, 0, left ? p1 : p2));
+            }
+            server.start();
+
+            GameClient[] clients = {new GameClient(server.getAddress()), new GameClient(server.getAddress())};
+            ScriptedInput[] bots = {new ScriptedInput(1), new ScriptedInput(2)};
+
+            // Play: every client reads the server, then its bot presses buttons based on the client's copy of the game
+            long tickNanos = 1_000_000_000L / game.getTickRate();
+            long end = System.nanoTime() + seconds * 1_000_000_000L;
+            boolean measuring = false;
+            long measureStart = 0, caughtUpAt = 0;
+
+            while (System.nanoTime() < end && !game.isOver()) {
+                // Measure once both clients have received the extra bullets (they come in at a few thousand per second)
+                // and the server has seen that (a few packets later)
+                if (caughtUpAt == 0 && caughtUp(clients, game)) caughtUpAt = System.nanoTime();
+                if (!measuring && caughtUpAt != 0 && System.nanoTime() - caughtUpAt > 250_000_000L) {
+                    server.resetStatistics();
+                    measuring = true;
+                    measureStart = System.nanoTime();
+                }
+                for (int c = 0; c < clients.length; c++) {
+                    clients[c].update();
+                    if (clients[c].isConnected()) {
+                        clients[c].sendInput(bots[c].poll(clients[c].getGame(), clients[c].getPlayer()));
+                    }
+                }
+                LockSupport.parkNanos(tickNanos);
+            }
+            double measured = measuring ? (System.nanoTime() - measureStart) / 1e9 : 0;
+            if (!measuring) System.out.println("The clients never caught up, no traffic numbers");
+
+            // Stop the match and let the clients receive everything
+            server.setPaused(true);
+            LockSupport.parkNanos(50_000_000L);
+            long serverTick = game.getTick();
+            for (int i = 0; i < 100; i++) {
+                for (GameClient client : clients) client.update();
+                LockSupport.parkNanos(tickNanos);
+            }
+
+            // Report
+            System.out.printf("Ticks: %d, bullets alive: %d, bullet events: %d, winner: %s%n", serverTick,
+                    game.getProjectiles().size(), server.getEventCount(),
+                    game.getWinner() == null ? "none" : game.getWinner().getName());
+            if (measured > 0) {
+                for (int c = 0; c < clients.length; c++) {
+                    System.out.printf("Player %d: %.1f kB/s from the server%n", c + 1, server.getBytesSent(c) / 1024.0 / measured);
+                }
+            }
+            System.out.printf("Server per step: network %.1f us, game %.1f us%n",
+                    server.getAverageNetworkMicros(), server.getAverageGameMicros());
+
+            for (int c = 0; c < clients.length; c++) {
+                System.out.printf("Client %d: tick %d, %s%n", c + 1, clients[c].getSimulatedTick(),
+                        compare(game, clients[c].getGame()));
+                clients[c].close();
+            }
+        }
+    }
+
+    private static boolean caughtUp(GameClient[] clients, GameController game) {
+        for (GameClient client : clients) {
+            int simulated = client.getSimulatedTick();
+            if (!client.isConnected() || simulated == 0 || simulated < game.getTick() - 2 * GameServer.DEFAULT_SEND_EVERY) return false;
+        }
+        return true;
+    }
+
+    // Checks that the client's bullets are exactly the server's bullets (same ids, same positions)
+    private static String compare(GameController server, GameController client) {
+        ProjectilePool a = server.getProjectiles(), b = client.getProjectiles();
+        if (a.size() != b.size()) return "MISMATCH: " + b.size() + " bullets, server has " + a.size();
+
+        Map<Integer, Projectile> byId = new HashMap<>();
+        for (int i = 0; i < a.size(); i++) byId.put(a.get(i).getId(), a.get(i));
+        for (int i = 0; i < b.size(); i++) {
+            Projectile mine = b.get(i), real = byId.get(mine.getId());
+            if (real == null || real.getX() != mine.getX() || real.getY() != mine.getY()) {
+                return "MISMATCH at bullet " + mine.getId();
+            }
+        }
+        return "bullets match the server (" + b.size() + ")";
+    }
+}
@@ -0,0 +1,267 @@
+package com.ozyra.battlearena.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Runs on its own background thread. Once per second it:
+//   1. turns the raw histograms of GameMetrics into a MetricsWindow (p50 / p99 / max of the last second),
+//   2. emits it as a JFR event,
+//   3. appends it to a CSV file (if one was configured), flushing every few seconds.
+// It also publishes the latest window over JMX as "com.ozyra.battlearena:type=GameMetrics".
+//
+// CSV output is switched on with system properties:
+//   -Dbattlearena.metrics.csv=metrics.csv   (file to append to)
+//   -Dbattlearena.metrics.csvSeconds=5       (how often to flush it, default 5)
+public class MetricsReporter implements AutoCloseable {
+
+    public static final String JMX_NAME = "com.ozyra.battlearena:type=GameMetrics";
+
+    private static final String CSV_HEADER = "timestamp_ms,fps,frame_p50_ms,frame_p99_ms,frame_max_ms,"
+            + "ticks_per_s,tick_p99_ms,input_p99_ms,simulation_p99_ms,collision_p99_ms,render_p99_ms,"
+            + "live_projectiles,alloc_mb_per_s";
+
+    private final GameMetrics metrics;
+    private final Path csvFile; // null = no CSV
+    private final int flushEverySeconds;
+
+    private ScheduledExecutorService executor;
+    private PrintWriter csv;
+    private ObjectName jmxName;
+    private int windowsSinceFlush;
+
+    // Values from the previous window, to compute "what happened in the last second"
+    private final long[][] previousCounts;
+    private final long[] currentCounts = new long[LatencyHistogram.getBucketCount()];
+    private final long[] deltaCounts = new long[LatencyHistogram.getBucketCount()];
+    private long previousNanos;
+    private long previousAllocated = -1;
+    private long previousThreadId = -1; // game thread 'previousAllocated' belongs to
+
+    public MetricsReporter(GameMetrics metrics, Path csvFile, int flushEverySeconds) {
+        this.metrics = metrics;
+        this.csvFile = csvFile;
+        this.flushEverySeconds = Math.max(1, flushEverySeconds);
+        this.previousCounts = new long[GameMetrics.Phase.values().length][LatencyHistogram.getBucketCount()];
+    }
+
+    // Reporter configured from the -Dbattlearena.metrics.* system properties
+    public static MetricsReporter fromSystemProperties(GameMetrics metrics) {
+        String csv = System.getProperty("battlearena.metrics.csv");
+        int seconds = Integer.getInteger("battlearena.metrics.csvSeconds", 5);
+        return new MetricsReporter(metrics, csv == null || csv.isBlank() ? null : Path.of(csv), seconds);
+    }
+
+    public void start() {
+        previousNanos = System.nanoTime();
+        previousAllocated = -1; // each match has a new game thread with its own allocation counter
+        registerJmx();
+        openCsv();
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true); // never keeps the game from exiting
+            return t;
+        });
+        executor.scheduleAtFixedRate(this::summarize, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            // Let a summarize() that is still running finish before its CSV writer is closed
+            try {
+                if (!executor.awaitTermination(2, TimeUnit.SECONDS)) System.err.println("Metrics reporter did not stop in time");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        unregisterJmx();
+        if (csv != null) {
+            csv.flush();
+            csv.close();
+            csv = null;
+        }
+    }
+
+    // Builds the window for the last second and hands it to everyone who wants it
+    private void summarize() {
+        try {
+            long now = System.nanoTime();
+            double seconds = (now - previousNanos) / 1e9;
+            previousNanos = now;
+
+            int phases = GameMetrics.Phase.values().length;
+            long[] count = new long[phases], p50 = new long[phases], p99 = new long[phases], max = new long[phases];
+
+            for (GameMetrics.Phase phase : GameMetrics.Phase.values()) {
+                int i = phase.ordinal();
+                metrics.histogram(phase).copyCounts(currentCounts);
+
+                long total = 0;
+                int highest = -1;
+                for (int b = 0; b < currentCounts.length; b++) {
+                    deltaCounts[b] = currentCounts[b] - previousCounts[i][b];
+                    total += deltaCounts[b];
+                    if (deltaCounts[b] > 0) highest = b;
+                }
+                System.arraycopy(currentCounts, 0, previousCounts[i], 0, currentCounts.length);
+
+                count[i] = total;
+                p50[i] = LatencyHistogram.percentile(deltaCounts, total, 50);
+                p99[i] = LatencyHistogram.percentile(deltaCounts, total, 99);
+                max[i] = highest < 0 ? 0 : LatencyHistogram.lowestValue(Math.min(highest + 1, deltaCounts.length - 1));
+            }
+
+            MetricsWindow window = new MetricsWindow(System.currentTimeMillis(), seconds, count, p50, p99, max,
+                    metrics.getLiveProjectiles(), allocationRate(seconds));
+            metrics.setLatest(window);
+
+            emitJfr(window);
+            writeCsv(window);
+        } catch (RuntimeException e) {
+            // A broken metrics window must never kill the reporter thread
+            System.err.println("Metrics reporter: " + e);
+        }
+    }
+
+    // Bytes per second allocated by the game thread since the last window, -1 if not supported
+    private double allocationRate(double seconds) {
+        long threadId = metrics.getGameThreadId();
+        if (threadId < 0 || !(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        if (!threads.isThreadAllocatedMemoryEnabled()) threads.setThreadAllocatedMemoryEnabled(true);
+
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        if (threadId != previousThreadId) previousAllocated = -1; // another game thread: its counter starts again
+        double rate = previousAllocated < 0 || allocated < 0 ? -1 : (allocated - previousAllocated) / seconds;
+        previousAllocated = allocated;
+        previousThreadId = threadId;
+        return rate;
+    }
+
+    private void emitJfr(MetricsWindow w) {
+        MetricsWindowEvent e = new MetricsWindowEvent();
+        if (!e.isEnabled()) return;
+
+        e.fps = w.rate(GameMetrics.Phase.FRAME);
+        e.frameP50 = w.p50Nanos(GameMetrics.Phase.FRAME);
+        e.frameP99 = w.p99Nanos(GameMetrics.Phase.FRAME);
+        e.frameMax = w.maxNanos(GameMetrics.Phase.FRAME);
+        e.tickP99 = w.p99Nanos(GameMetrics.Phase.TICK);
+        e.renderP99 = w.p99Nanos(GameMetrics.Phase.RENDER);
+        e.projectiles = w.liveProjectiles;
+        e.allocationRate = w.allocatedBytesPerSecond;
+        e.commit();
+    }
+
+    // ---- CSV ----
+
+    private void openCsv() {
+        if (csvFile == null) return;
+        try {
+            boolean fresh = !Files.exists(csvFile) || Files.size(csvFile) == 0;
+            csv = new PrintWriter(Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+            if (fresh) csv.println(CSV_HEADER);
+        } catch (IOException e) {
+            System.err.println("Metrics CSV disabled, cannot open " + csvFile + ": " + e.getMessage());
+            csv = null;
+        }
+    }
+
+    private void writeCsv(MetricsWindow w) {
+        if (csv == null) return;
+
+        csv.printf(Locale.ROOT, "%d,%.1f,%.3f,%.3f,%.3f,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%.2f%n",
+                w.timestampMs,
+                w.rate(GameMetrics.Phase.FRAME),
+                ms(w.p50Nanos(GameMetrics.Phase.FRAME)),
+                ms(w.p99Nanos(GameMetrics.Phase.FRAME)),
+                ms(w.maxNanos(GameMetrics.Phase.FRAME)),
+                w.rate(GameMetrics.Phase.TICK),
+                ms(w.p99Nanos(GameMetrics.Phase.TICK)),
+                ms(w.p99Nanos(GameMetrics.Phase.INPUT)),
+                ms(w.p99Nanos(GameMetrics.Phase.SIMULATION)),
+                ms(w.p99Nanos(GameMetrics.Phase.COLLISION)),
+                ms(w.p99Nanos(GameMetrics.Phase.RENDER)),
+                w.liveProjectiles,
+                w.allocatedBytesPerSecond < 0 ? -1 : w.allocatedBytesPerSecond / (1024 * 1024));
+
+        if (++windowsSinceFlush >= flushEverySeconds) {
+            csv.flush();
+            windowsSinceFlush = 0;
+        }
+    }
+
+    static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // ---- JMX ----
+
+    private void registerJmx() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            jmxName = new ObjectName(JMX_NAME);
+            // A previous match may still be registered (e.g. after RETRY): replace it
+            if (server.isRegistered(jmxName)) server.unregisterMBean(jmxName);
+            server.registerMBean(new Jmx(metrics), jmxName);
+        } catch (JMException e) {
+            System.err.println("Metrics JMX disabled: " + e.getMessage());
+            jmxName = null;
+        }
+    }
+
+    private void unregisterJmx() {
+        if (jmxName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(jmxName);
+        } catch (JMException e) {
+            // already gone, nothing to do
+        }
+        jmxName = null;
+    }
+
+    // The JMX view of the latest window
+    static class Jmx implements GameMetricsMXBean {
+        private final GameMetrics metrics;
+
+        Jmx(GameMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        private MetricsWindow w() { return metrics.getLatest(); }
+
+        @Override public double getFramesPerSecond() { return w().rate(GameMetrics.Phase.FRAME); }
+        @Override public double getFrameP50Ms() { return ms(w().p50Nanos(GameMetrics.Phase.FRAME)); }
+        @Override public double getFrameP99Ms() { return ms(w().p99Nanos(GameMetrics.Phase.FRAME)); }
+        @Override public double getFrameMaxMs() { return ms(w().maxNanos(GameMetrics.Phase.FRAME)); }
+        @Override public double getTicksPerSecond() { return w().rate(GameMetrics.Phase.TICK); }
+        @Override public double getTickP99Ms() { return ms(w().p99Nanos(GameMetrics.Phase.TICK)); }
+        @Override public double getInputP99Ms() { return ms(w().p99Nanos(GameMetrics.Phase.INPUT)); }
+        @Override public double getSimulationP99Ms() { return ms(w().p99Nanos(GameMetrics.Phase.SIMULATION)); }
+        @Override public double getCollisionP99Ms() { return ms(w().p99Nanos(GameMetrics.Phase.COLLISION)); }
+        @Override public double getRenderP99Ms() { return ms(w().p99Nanos(GameMetrics.Phase.RENDER)); }
+        @Override public int getLiveProjectiles() { return metrics.getLiveProjectiles(); }
+        @Override public double getAllocationRateMBPerSecond() {
+            double rate = w().allocatedBytesPerSecond;
+            return rate < 0 ? -1 : rate / (1024 * 1024);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ozyra.battlearena.metrics;
+
+// A summary of one time window (normally one second): percentiles per phase and a few gauges.
+// Objects of this class never change after they are created, so any thread can read them safely.
+public final class MetricsWindow {
+
+    public static final MetricsWindow EMPTY = new MetricsWindow(0, 0,
+            new long[GameMetrics.Phase.values().length], new long[GameMetrics.Phase.values().length],
+            new long[GameMetrics.Phase.values().length], new long[GameMetrics.Phase.values().length], 0, 0);
+
+    public final long timestampMs; // wall clock time at the end of the window
+    public final double seconds; // length of the window
+    private final long[] count, p50, p99, max; // per phase, nanoseconds
+    public final int liveProjectiles;
+    public final double allocatedBytesPerSecond; // by the game thread, -1 if unknown
+
+    MetricsWindow(long timestampMs, double seconds, long[] count, long[] p50, long[] p99, long[] max,
+                  int liveProjectiles, double allocatedBytesPerSecond) {
+        this.timestampMs = timestampMs;
+        this.seconds = seconds;
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.liveProjectiles = liveProjectiles;
+        this.allocatedBytesPerSecond = allocatedBytesPerSecond;
+    }
+
+    public long count(GameMetrics.Phase phase) { return count[phase.ordinal()]; }
+    public long p50Nanos(GameMetrics.Phase phase) { return p50[phase.ordinal()]; }
+    public long p99Nanos(GameMetrics.Phase phase) { return p99[phase.ordinal()]; }
+    public long maxNanos(GameMetrics.Phase phase) { return max[phase.ordinal()]; }
+
+    // How many times 'phase' ran per second (for FRAME that is the fps)
+    public double rate(GameMetrics.Phase phase) {
+        return seconds <= 0 ? 0 : count(phase) / seconds;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ozyra.battlearena.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// A Java Flight Recorder event with the one-second summary written by MetricsReporter
+@Name("com.ozyra.battlearena.MetricsWindow")
+@Label("Metrics Window")
+@Category("Battle Arena")
+@StackTrace(false)
+public class MetricsWindowEvent extends Event {
+
+    @Label("Frames Per Second")
+    public double fps;
+
+    @Label("Frame p50")
+    @Timespan(Timespan.NANOSECONDS)
+    public long frameP50;
+
+    @Label("Frame p99")
+    @Timespan(Timespan.NANOSECONDS)
+    public long frameP99;
+
+    @Label("Frame Max")
+    @Timespan(Timespan.NANOSECONDS)
+    public long frameMax;
+
+    @Label("Tick p99")
+    @Timespan(Timespan.NANOSECONDS)
+    public long tickP99;
+
+    @Label("Render p99")
+    @Timespan(Timespan.NANOSECONDS)
+    public long renderP99;
+
+    @Label("Live Projectiles")
+    public int projectiles;
+
+    @Label("Allocation Rate (bytes/s)")
+    public double allocationRate;
+}
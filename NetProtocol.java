@@ -0,0 +1,130 @@
+package com.ozyra.battlearena.net;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Weapon;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// The messages the GameServer and GameClient send each other (one UDP packet each).
+//
+//   HELLO    client -> server  "I want to play"
+//   WELCOME  server -> client  your player number + how the match starts (arena, players, weapons)
+//   INPUT    client -> server  my buttons now + the last snapshot / bullet event I received
+//   SNAPSHOT server -> client  the players (only what changed since the snapshot the client has)
+//                              + the bullet events (fired / hit) the client hasn't confirmed yet
+//
+// Bullets fly in a straight line, so the server never sends bullet positions:
+// the client gets each bullet ONCE when it is fired and moves it itself.
+// That's why the traffic depends on how often people shoot, not on how many bullets are flying.
+final class NetProtocol {
+
+    static final byte HELLO = 1;
+    static final byte WELCOME = 2;
+    static final byte INPUT = 3;
+    static final byte SNAPSHOT = 4;
+
+    // Bullet events
+    static final byte FIRED = 0;
+    static final byte HIT = 1;
+
+    // Which player fields a snapshot contains (the rest is the same as in the base snapshot)
+    static final int HAS_X = 1, HAS_Y = 2, HAS_DIR = 4, HAS_HEALTH = 8, HAS_WEAPON = 16;
+    static final int ALL_FIELDS = HAS_X | HAS_Y | HAS_DIR | HAS_HEALTH | HAS_WEAPON;
+
+    // Small enough to never be split up on the way (the usual internet packet limit is ~1500 bytes)
+    static final int MAX_PACKET = 1200;
+
+    // Biggest size of one bullet event: kind + 2 varints + 4 doubles + weapon + owner
+    static final int MAX_EVENT_BYTES = 1 + 5 + 5 + 4 * 8 + 1 + 1;
+
+    // How many snapshots the server and client remember (to send only the changes)
+    static final int HISTORY = 64;
+
+    // How many bullet events are kept for clients that haven't confirmed them yet
+    static final int EVENT_CAPACITY = 1 << 16;
+
+    private NetProtocol() {} // only static methods
+
+    // ---- The starting state, sent in WELCOME ----
+
+    static void putMatch(ByteBuffer out, GameController game) {
+        out.putInt(game.getTickRate());
+        out.putDouble(game.getWidth());
+        out.putDouble(game.getHeight());
+        out.putInt(game.getProjectiles().capacity());
+        putVarint(out, game.getPlayers().size());
+        for (GameCharacter c : game.getPlayers()) {
+            putString(out, c.getClass().getSimpleName());
+            putString(out, c.getName());
+            putString(out, c.getWeapon().getName());
+            out.putDouble(c.getX());
+            out.putDouble(c.getY());
+        }
+    }
+
+    // Builds a copy of the server's game as it was at the start
+    static GameController getMatch(ByteBuffer in) {
+        int tickRate = in.getInt();
+        double width = in.getDouble();
+        double height = in.getDouble();
+        int maxProjectiles = in.getInt();
+        int count = (int) getVarint(in);
+
+        List<GameCharacter> players = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            String type = getString(in);
+            String name = getString(in);
+            String weapon = getString(in);
+            double x = in.getDouble();
+            double y = in.getDouble();
+            players.add(GameCharacter.create(type, name, x, y, Weapon.createWeapon(weapon)));
+        }
+        return new GameController(width, height, players, maxProjectiles, tickRate);
+    }
+
+    // Facing direction as one byte (the directions are always -1, 0 or 1 on each axis)
+    static byte packDirection(double dirX, double dirY) {
+        return (byte) ((int) Math.signum(dirX) + 1 + 3 * ((int) Math.signum(dirY) + 1));
+    }
+
+    static double unpackDirX(byte dir) { return dir % 3 - 1; }
+    static double unpackDirY(byte dir) { return dir / 3 - 1; }
+
+    // ---- Varints and strings (see ReplayRecorder for how varints work) ----
+
+    static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    static void putString(ByteBuffer out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(out, bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) getVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,197 @@
+package com.ozyra.battlearena.scenes;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Sparks, muzzle flashes and death bursts.
+//
+// Particles only decorate the screen (the game never looks at them), so they live on the drawing side:
+// GameScene spawns them from the game events (see GameEvents) and moves them once per simulation tick.
+//
+// There are no particle objects: every particle is a row in a few arrays ("columns") made once in the constructor.
+// Dead particles are removed with a swap-remove (like the ProjectilePool), so the live ones are always [0, count).
+// When the system is full new particles are simply dropped.
+//
+// Drawing doesn't use the GraphicsContext either: render() writes every particle as a few pixels
+// straight into an int[] of pixels, which the screen shows as one image (one upload per frame, see GameScene).
+public class ParticleSystem {
+
+    // Used by GameScene
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    // Particles slow down a little every tick (1 = never)
+    private static final double DRAG = 0.96;
+
+    // The columns (row = particle)
+    private final double[] x, y; // world position
+    private final double[] vx, vy; // pixels per second
+    private final int[] life; // ticks left
+    private final int[] fade; // strength lost per tick of life, in 1/65536ths of 256 (so strength = life * fade >> 16)
+    private final int[] color; // 0xRRGGBB
+    private int count;
+
+    private final SplittableRandom random = new SplittableRandom(1);
+
+    // Rectangle of the pixel buffer drawn into this frame / last frame (x0 > x1 = nothing)
+    private int x0, y0, x1 = -1, y1 = -1;
+    private int lastX0, lastY0, lastX1 = -1, lastY1 = -1;
+
+    public ParticleSystem(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        life = new int[capacity];
+        fade = new int[capacity];
+        color = new int[capacity];
+    }
+
+    // ---- Spawning ----
+
+    // One particle at (x, y) flying with (vx, vy) for 'lifeTicks' ticks
+    public void spawn(double px, double py, double pvx, double pvy, int lifeTicks, int rgb) {
+        if (count == x.length || lifeTicks <= 0) return;
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        life[i] = lifeTicks;
+        fade[i] = (256 << 16) / lifeTicks;
+        color[i] = rgb;
+    }
+
+    // 'n' particles flying away from (x, y) in directions 'angle' +- 'spread' (radians),
+    // with a speed between minSpeed and maxSpeed (pixels per second), living minLife to maxLife ticks
+    public void burst(double px, double py, int n, double angle, double spread,
+                      double minSpeed, double maxSpeed, int minLife, int maxLife, int rgb) {
+        for (int k = 0; k < n; k++) {
+            double a = angle + (random.nextDouble() * 2 - 1) * spread;
+            double speed = minSpeed + random.nextDouble() * (maxSpeed - minSpeed);
+            int ticks = minLife + random.nextInt(Math.max(1, maxLife - minLife + 1));
+            spawn(px, py, Math.cos(a) * speed, Math.sin(a) * speed, ticks, rgb);
+        }
+    }
+
+    // ---- Simulation ----
+
+    // Moves every particle by one tick of 'dt' seconds and removes the ones whose time is up
+    public void step(double dt) {
+        double[] px = x, py = y, pvx = vx, pvy = vy;
+        int[] left = life;
+
+        int i = 0;
+        while (i < count) {
+            if (--left[i] <= 0) {
+                remove(i); // the last particle is moved into slot i, so don't advance
+                continue;
+            }
+            px[i] += pvx[i] * dt;
+            py[i] += pvy[i] * dt;
+            pvx[i] *= DRAG;
+            pvy[i] *= DRAG;
+            i++;
+        }
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        life[i] = life[last];
+        fade[i] = fade[last];
+        color[i] = color[last];
+    }
+
+    // Removes every particle (e.g. for a new match)
+    public void clear() {
+        count = 0;
+    }
+
+    // ---- Drawing ----
+
+    // Erases what the last frame drew into 'pixels' (rows of 'width' ints). Call it once at the start of a frame.
+    public void erase(int[] pixels, int width) {
+        for (int row = y0; row <= y1; row++) {
+            Arrays.fill(pixels, row * width + x0, row * width + x1 + 1, 0);
+        }
+        lastX0 = x0;
+        lastY0 = y0;
+        lastX1 = x1;
+        lastY1 = y1;
+        x0 = y0 = Integer.MAX_VALUE;
+        x1 = y1 = -1;
+    }
+
+    // Adds the particles that 'cam' sees into 'pixels' (premultiplied ARGB, 'width' x 'height'),
+    // each one a 2x2 dot that fades out over its life. Dots on top of each other add up, so dense sparks glow.
+    // alpha/dt: the dots are drawn 'alpha' of the way to the next tick (like RenderState), dt = seconds per tick.
+    public void render(int[] pixels, int width, int height, Camera cam, double alpha, double dt) {
+        // Only the camera's viewport (a split screen half must not draw into the other half)
+        int left = Math.max(0, (int) cam.getLeft()), top = Math.max(0, (int) cam.getTop());
+        int right = Math.min(width, (int) (cam.getLeft() + cam.getWidth())) - 2;
+        int bottom = Math.min(height, (int) (cam.getTop() + cam.getHeight())) - 2;
+        double offsetX = cam.toScreenX(0), offsetY = cam.toScreenY(0);
+        double ahead = alpha * dt;
+
+        int minX = x0, minY = y0, maxX = x1, maxY = y1;
+        for (int i = 0; i < count; i++) {
+            int sx = (int) (x[i] + vx[i] * ahead + offsetX);
+            int sy = (int) (y[i] + vy[i] * ahead + offsetY);
+            if (sx < left || sx > right || sy < top || sy > bottom) continue;
+
+            // Fade out: premultiplied color = color * strength (strength 0..256)
+            int a = (int) ((long) life[i] * fade[i] >> 16);
+            int rgb = color[i];
+            int r = ((rgb >> 16) & 0xff) * a >> 8, g = ((rgb >> 8) & 0xff) * a >> 8, b = (rgb & 0xff) * a >> 8;
+            int argb = Math.min(255, a) << 24 | r << 16 | g << 8 | b;
+
+            int k = sy * width + sx;
+            pixels[k] = glow(pixels[k], argb);
+            pixels[k + 1] = glow(pixels[k + 1], argb);
+            pixels[k + width] = glow(pixels[k + width], argb);
+            pixels[k + width + 1] = glow(pixels[k + width + 1], argb);
+
+            if (sx < minX) minX = sx;
+            if (sx + 1 > maxX) maxX = sx + 1;
+            if (sy < minY) minY = sy;
+            if (sy + 1 > maxY) maxY = sy + 1;
+        }
+        x0 = minX;
+        y0 = minY;
+        x1 = maxX;
+        y1 = maxY;
+    }
+
+    // Adds two ARGB colors, each channel stops at 255.
+    // Two channels are added at once: red+blue and alpha+green each fit in one int with 8 free bits between them.
+    // A channel that went over 255 has its bit 8 set; (bit - (bit >>> 8)) turns that into 0xff to fill it up.
+    private static int glow(int dst, int src) {
+        int rb = (dst & 0x00ff00ff) + (src & 0x00ff00ff);
+        int ag = ((dst >>> 8) & 0x00ff00ff) + ((src >>> 8) & 0x00ff00ff);
+        int rbOver = rb & 0x01000100, agOver = ag & 0x01000100;
+        rb = (rb | (rbOver - (rbOver >>> 8))) & 0x00ff00ff;
+        ag = (ag | (agOver - (agOver >>> 8))) & 0x00ff00ff;
+        return rb | ag << 8;
+    }
+
+    // The rectangle of pixels that changed since the last frame (erased or drawn), as {x, y, width, height},
+    // or null if nothing changed. Only this part has to be sent to the screen.
+    public int[] changed(int[] out) {
+        int cx0 = Math.min(x0, lastX1 < 0 ? Integer.MAX_VALUE : lastX0);
+        int cy0 = Math.min(y0, lastY1 < 0 ? Integer.MAX_VALUE : lastY0);
+        int cx1 = Math.max(x1, lastX1), cy1 = Math.max(y1, lastY1);
+        if (cx1 < 0) return null;
+        out[0] = cx0;
+        out[1] = cy0;
+        out[2] = cx1 - cx0 + 1;
+        out[3] = cy1 - cy0 + 1;
+        return out;
+    }
+
+    public int size() { return count; }
+    public int capacity() { return x.length; }
+}
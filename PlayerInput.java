@@ -0,0 +1,42 @@
+package com.ozyra.battlearena.controller;
+
+// The buttons a player holds during one tick, packed into the bits of a single int.
+// Example: (UP | SHOOT) means "walking up while shooting".
+// Ints are tiny and need no 'new', so we can pass them around every tick for free.
+public final class PlayerInput {
+
+    public static final int NONE = 0;
+
+    public static final int UP       = 1;
+    public static final int DOWN     = 1 << 1;
+    public static final int LEFT     = 1 << 2;
+    public static final int RIGHT    = 1 << 3;
+    public static final int SHOOT    = 1 << 4;
+    public static final int WEAPON_1 = 1 << 5; // Sword
+    public static final int WEAPON_2 = 1 << 6; // Bow
+    public static final int WEAPON_3 = 1 << 7; // Magic
+
+    // Only static helpers, nobody needs to create a PlayerInput object
+    private PlayerInput() {
+    }
+
+    // Checks if 'button' is held in 'input'
+    public static boolean has(int input, int button) {
+        return (input & button) != 0;
+    }
+
+    // The bit of a button from its name ("UP", "SHOOT", "WEAPON_2", ...), used by key binding files
+    public static int fromName(String name) {
+        return switch (name.trim().toUpperCase()) {
+            case "UP" -> UP;
+            case "DOWN" -> DOWN;
+            case "LEFT" -> LEFT;
+            case "RIGHT" -> RIGHT;
+            case "SHOOT" -> SHOOT;
+            case "WEAPON_1" -> WEAPON_1;
+            case "WEAPON_2" -> WEAPON_2;
+            case "WEAPON_3" -> WEAPON_3;
+            default -> throw new IllegalArgumentException("Unknown button: " + name);
+        };
+    }
+}
@@ -2,38 +2,120 @@ package com.ozyra.battlearena.model;
 
 public class Projectile {
 
-    private double x, y; // Current position of the bullet
-    private final double vx, vy; // Velocity (speed + direction) in x and y axis
-    private final int damage; // how much health this bullet reduces
-    private final GameCharacter owner; // who fired this bullet
+    // A bullet from the pool is a "view": its values live in the columns of an EntityStore, this object only knows where.
+    // The ProjectilePool makes one view per slot ONCE and reuses them again and again.
+    // A loose bullet (made with 'new', e.g. by Weapon.createProjectile) has no store (store == null)
+    // and keeps its values in the fields below instead.
+    private final EntityStore store;
+    private final int slot;
+
+    // Values of a loose bullet (unused for pool views)
+    private double x, y, vx, vy;
+    private int damage, id;
+    private GameCharacter owner;
+    private Weapon weapon;
+
+    // Empty loose bullet (not in any store)
+    public Projectile() {
+        this(null, 0);
+    }
+
+    // A view of bullet 'slot' of 'store'
+    public Projectile(EntityStore store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
 
     // Constructor: creates the bullet starting at (x,y) with a specific speed and owner
     public Projectile(double x, double y, double vx, double vy, int damage, GameCharacter owner) {
-        this.x = x;
-        this.y = y;
-        this.vx = vx;
-        this.vy = vy;
-        this.damage = damage;
-        this.owner = owner;
+        this();
+        set(x, y, vx, vy, damage, owner);
+    }
+
+    // (Re)initializes this bullet in place, so firing from a pool slot doesn't need 'new'
+    public void set(double x, double y, double vx, double vy, int damage, GameCharacter owner) {
+        set(x, y, vx, vy, damage, owner, null);
+    }
+
+    // Same as above, also remembering which weapon fired the bullet.
+    // A pool bullet only keeps an owner that is a character of the same match (others become "no owner").
+    public void set(double x, double y, double vx, double vy, int damage, GameCharacter owner, Weapon weapon) {
+        EntityStore s = store;
+        if (s == null) {
+            this.x = x;
+            this.y = y;
+            this.vx = vx;
+            this.vy = vy;
+            this.damage = damage;
+            this.owner = owner;
+            this.weapon = weapon;
+            return;
+        }
+        s.bulletX[slot] = x;
+        s.bulletY[slot] = y;
+        s.bulletVx[slot] = vx;
+        s.bulletVy[slot] = vy;
+        s.bulletDamage[slot] = damage;
+        s.bulletOwner[slot] = s.ownerId(owner);
+        s.bulletWeapon[slot] = weapon;
+    }
+
+    // Copies another bullet's values into this one
+    public void set(Projectile other) {
+        if (store != null && other.store == store) {
+            store.copyBullet(other.slot, slot);
+            return;
+        }
+        set(other.getX(), other.getY(), other.getVx(), other.getVy(), other.getDamage(), other.getOwner(), other.getWeapon());
+        setId(other.getId());
+    }
+
+    // Forget the owner when the bullet goes back to the pool (so we don't hold on to old players)
+    public void clear() {
+        if (store == null) {
+            owner = null;
+            weapon = null;
+            return;
+        }
+        store.clearBullet(slot);
     }
 
     // Moves the bullet forward
     public void update(double dt) {
         // position = old position + (velocity * time passed)
         // multiplying by 'dt' (Delta Time) ensures smooth movement on all computers
-        x += vx * dt;
-        y += vy * dt;
+        if (store == null) {
+            x += vx * dt;
+            y += vy * dt;
+            return;
+        }
+        store.bulletX[slot] += store.bulletVx[slot] * dt;
+        store.bulletY[slot] += store.bulletVy[slot] * dt;
     }
 
     // checks if the bullet has left the game window
     // we use this to delete bullets so the game doesn't get slow
     public boolean isOffScreen(double w, double h) {
+        double x = getX(), y = getY();
         return x < 0 || x > w || y < 0 || y > h;
     }
 
     // Getters allow the controller to see where the bullet is
-    public double getX() { return x; }
-    public double getY() { return y; }
-    public int getDamage() { return damage; }
-    public GameCharacter getOwner() { return owner; }
+    public double getX() { return store == null ? x : store.bulletX[slot]; }
+    public double getY() { return store == null ? y : store.bulletY[slot]; }
+    public double getVx() { return store == null ? vx : store.bulletVx[slot]; }
+    public double getVy() { return store == null ? vy : store.bulletVy[slot]; }
+    public int getDamage() { return store == null ? damage : store.bulletDamage[slot]; }
+    public GameCharacter getOwner() { return store == null ? owner : store.owner(store.bulletOwner[slot]); }
+    public Weapon getWeapon() { return store == null ? weapon : store.bulletWeapon[slot]; }
+    public int getId() { return store == null ? id : store.bulletId[slot]; }
+
+    public void setId(int id) {
+        if (store == null) this.id = id;
+        else store.bulletId[slot] = id;
+    }
+
+    // Where the values are kept (null for a loose bullet)
+    public EntityStore getStore() { return store; }
+    public int getSlot() { return slot; }
 }
@@ -0,0 +1,16 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Projectile;
+
+// Gets told when bullets appear and when they hit somebody (e.g. the network server, see GameController.setProjectileListener).
+// Both methods run inside GameController.tick, while game.getTick() is still the number of the running tick.
+// Bullets that fly off the screen are not reported: anybody who knows the bullet can work that out himself.
+public interface ProjectileListener {
+
+    // A new bullet 'p' was created (it has its id already, it has not moved yet)
+    void projectileFired(Projectile p);
+
+    // Bullet 'p' hit 'target' and is removed right after this call
+    void projectileHit(Projectile p, GameCharacter target);
+}
@@ -0,0 +1,82 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.EntityStore;
+import com.ozyra.battlearena.model.Projectile;
+
+// A fixed-size store of reusable bullets.
+// All Projectile objects are created ONCE in the constructor, so firing and removing
+// bullets during a match never allocates memory (no garbage -> no GC pauses).
+//
+// The bullets' values live in the columns of an EntityStore, and Projectile number i is a view of slot i.
+// Live bullets are always packed at the front: slots [0, size) are alive,
+// so the systems in GameController can simply loop over the columns from 0 to size.
+public class ProjectilePool {
+
+    // Used when the controller is created without an explicit capacity
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final EntityStore store;
+    private final Projectile[] slots;
+    private int size; // number of live bullets
+
+    // Constructor: pre-creates 'capacity' empty bullets (in a store of their own)
+    public ProjectilePool(int capacity) {
+        this(new EntityStore(0, checkCapacity(capacity)));
+    }
+
+    // Uses the bullet columns of 'store' (usually the store of a match, which also holds its players)
+    public ProjectilePool(EntityStore store) {
+        int capacity = checkCapacity(store.getBulletCapacity());
+        this.store = store;
+        slots = new Projectile[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Projectile(store, i);
+        }
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        return capacity;
+    }
+
+    // Hands out the next free bullet, or null when the pool is full.
+    // The caller must fill it in (e.g. with Weapon.createProjectile(slot, ...))
+    public Projectile acquire() {
+        if (size == slots.length) return null;
+        return slots[size++];
+    }
+
+    // Gives back the most recently acquired bullet (used when it was not fired after all)
+    public void release() {
+        if (size > 0) slots[--size].clear();
+    }
+
+    // Removes the bullet at 'index' in O(1) with a "swap-remove":
+    // the values of the last live bullet are copied into the hole, so nothing has to be shifted.
+    // NOTE: when looping, do NOT advance the index after a removal -
+    // the bullet that was swapped in still has to be processed.
+    // (get(index) keeps returning the same view object, it just shows the swapped-in bullet now)
+    public void remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+
+        int last = --size;
+        if (index != last) store.copyBullet(last, index);
+        store.clearBullet(last);
+    }
+
+    // Removes every live bullet (objects stay in the pool)
+    public void clear() {
+        for (int i = 0; i < size; i++) store.clearBullet(i);
+        size = 0;
+    }
+
+    // Getters
+    public Projectile get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return slots[index];
+    }
+    public EntityStore getStore() { return store; }
+    public int size() { return size; }
+    public int capacity() { return slots.length; }
+    public boolean isFull() { return size == slots.length; }
+}
@@ -0,0 +1,278 @@
+package com.ozyra.battlearena.tools;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.PlayerInput;
+import com.ozyra.battlearena.controller.ProjectilePool;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.metrics.GameMetrics;
+import com.ozyra.battlearena.metrics.LatencyHistogram;
+import com.ozyra.battlearena.metrics.MetricsWindow;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.SimpleWeapon;
+import com.ozyra.battlearena.model.Weapon;
+import com.ozyra.battlearena.scenes.GameScene;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+// Soak test for the real drawing path: the real GameScene runs in a JavaFX window while two scripted players
+// fire fans of harmless bullets until thousands of them fly, and keeps that up for minutes.
+// At the end it prints frame / render / tick percentiles, how much the heap grew and how long the GC paused,
+// and exits with code 1 if any of them is over its budget. So slow drawing and slow simulation both fail the run.
+//
+// Without a screen (CI machines) it uses Monocle, the headless platform of JavaFX, with the software renderer.
+// Monocle is not in the normal JavaFX jars: put the openjfx-monocle jar that matches the JavaFX version on the classpath.
+// With -window it opens a normal window instead.
+//
+// Usage: RenderSoak [-minutes 5] [-warmup 20] [-bullets 3000] [-world 2400x1200] [-seed 1] [-csv soak.csv] [-window]
+//                   [-frameP99 25] [-renderP99 8] [-tickP99 2] [-heapMB 64] [-gcPause 50]
+//
+// The budgets (last line) are in ms, except -heapMB: how much more heap may be in use after a full GC
+// at the end than at the start of the measured part.
+public class RenderSoak {
+
+    // The players' weapon: 16 bullets in a wide fan every tick, no damage (so nobody dies and the match never ends)
+    private static final Weapon SOAK_WEAPON = new SimpleWeapon(-1, "Soak", 0, 300, 0, 16, 2.5);
+
+    // Measured phases (from the GameMetrics of the scene)
+    private static final GameMetrics.Phase[] PHASES = {GameMetrics.Phase.FRAME, GameMetrics.Phase.RENDER, GameMetrics.Phase.TICK};
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        // ---- Read command line options ----
+        double minutes = 5, warmupSeconds = 20;
+        int bullets = 3000;
+        long seed = 1;
+        String world = "2400x1200";
+        Path csv = null;
+        boolean window = false;
+        double frameP99 = 25, renderP99 = 8, tickP99 = 2, heapMB = 64, gcPause = 50;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-window" -> window = true;
+                case "-minutes" -> minutes = Double.parseDouble(args[++i]);
+                case "-warmup" -> warmupSeconds = Double.parseDouble(args[++i]);
+                case "-bullets" -> bullets = Integer.parseInt(args[++i]);
+                case "-world" -> world = args[++i];
+                case "-seed" -> seed = Long.parseLong(args[++i]);
+                case "-csv" -> csv = Path.of(args[++i]);
+                case "-frameP99" -> frameP99 = Double.parseDouble(args[++i]);
+                case "-renderP99" -> renderP99 = Double.parseDouble(args[++i]);
+                case "-tickP99" -> tickP99 = Double.parseDouble(args[++i]);
+                case "-heapMB" -> heapMB = Double.parseDouble(args[++i]);
+                case "-gcPause" -> gcPause = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        // The pool must keep room for a whole fan, or the players could never reach the target
+        bullets = Math.max(1, Math.min(bullets, ProjectilePool.DEFAULT_CAPACITY - 2 * 16));
+
+        // ---- JavaFX: headless unless asked for a window; the scene reads the world size when it is built ----
+        if (!window) {
+            setIfAbsent("glass.platform", "Monocle");
+            setIfAbsent("monocle.platform", "Headless");
+            setIfAbsent("prism.order", "sw");
+        }
+        setIfAbsent("battlearena.replays", "off"); // a soak run is not worth watching again
+        System.setProperty("battlearena.world", world);
+
+        GcWatch gc = new GcWatch();
+        GameScene scene = openScene(new SoakInput(seed, bullets), new SoakInput(seed + 1, bullets));
+        GameMetrics metrics = scene.getMetrics();
+
+        System.out.printf(Locale.ROOT, "Render soak: %.1f min at %d bullets in a %s world (warm-up %.0f s, %s)%n",
+                minutes, bullets, world, warmupSeconds, window ? "window" : "headless");
+
+        // ---- 1. Warm-up: let the bullets pile up and the JIT settle ----
+        long warmupEnd = System.nanoTime() + (long) (warmupSeconds * 1e9);
+        while (System.nanoTime() < warmupEnd) Thread.sleep(100);
+        System.out.printf("Warm-up done, %d bullets alive%n", metrics.getLiveProjectiles());
+
+        // ---- 2. Measure: everything from here on counts ----
+        System.gc();
+        long heapBefore = usedHeap();
+        gc.reset();
+        long[][] before = counts(metrics);
+
+        PrintWriter out = csv == null ? null : new PrintWriter(Files.newBufferedWriter(csv, StandardCharsets.UTF_8));
+        if (out != null) out.println("second,bullets,fps,frame_p99_ms,frame_max_ms,render_p99_ms,tick_p99_ms,heap_mb");
+
+        long start = System.nanoTime(), end = start + (long) (minutes * 60e9);
+        int second = 0, minBullets = Integer.MAX_VALUE;
+        long bulletSum = 0;
+        while (System.nanoTime() < end) {
+            Thread.sleep(1000);
+            second++;
+            int live = metrics.getLiveProjectiles();
+            minBullets = Math.min(minBullets, live);
+            bulletSum += live;
+
+            MetricsWindow w = metrics.getLatest(); // the scene's one-second summary
+            if (out != null) {
+                out.printf(Locale.ROOT, "%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.1f%n", second, live, w.rate(GameMetrics.Phase.FRAME),
+                        ms(w.p99Nanos(GameMetrics.Phase.FRAME)), ms(w.maxNanos(GameMetrics.Phase.FRAME)),
+                        ms(w.p99Nanos(GameMetrics.Phase.RENDER)), ms(w.p99Nanos(GameMetrics.Phase.TICK)), usedHeap() / 1048576.0);
+            }
+            if (second % 10 == 0) {
+                System.out.printf(Locale.ROOT, "%4d s  bullets %5d  fps %5.1f  frame p99 %6.2f ms  render p99 %6.2f ms  heap %6.1f MB%n",
+                        second, live, w.rate(GameMetrics.Phase.FRAME), ms(w.p99Nanos(GameMetrics.Phase.FRAME)),
+                        ms(w.p99Nanos(GameMetrics.Phase.RENDER)), usedHeap() / 1048576.0);
+            }
+        }
+        if (out != null) out.close();
+
+        long[][] after = counts(metrics);
+        double gcCount = gc.count(), gcTotal = gc.totalMs(), gcMax = gc.maxMs(); // before our own System.gc() below
+        System.gc();
+        double heapGrowth = (usedHeap() - heapBefore) / 1048576.0;
+
+        // ---- 3. Report ----
+        System.out.printf(Locale.ROOT, "%nMeasured %d s, bullets alive: min %d, average %d%n", second, minBullets, bulletSum / Math.max(1, second));
+        System.out.println("phase        count      p50      p90      p99    p99.9      max   (ms)");
+        double[] p99 = new double[PHASES.length];
+        for (int k = 0; k < PHASES.length; k++) {
+            long[] delta = new long[LatencyHistogram.getBucketCount()];
+            long total = 0;
+            for (int b = 0; b < delta.length; b++) {
+                delta[b] = after[k][b] - before[k][b];
+                total += delta[b];
+            }
+            p99[k] = ms(LatencyHistogram.percentile(delta, total, 99));
+            System.out.printf(Locale.ROOT, "%-8s %9d %8.2f %8.2f %8.2f %8.2f %8.2f%n", PHASES[k].name().toLowerCase(Locale.ROOT), total,
+                    ms(LatencyHistogram.percentile(delta, total, 50)), ms(LatencyHistogram.percentile(delta, total, 90)), p99[k],
+                    ms(LatencyHistogram.percentile(delta, total, 99.9)), ms(LatencyHistogram.percentile(delta, total, 100)));
+        }
+        System.out.printf(Locale.ROOT, "heap growth %.1f MB, GC: %.0f pauses, %.0f ms in total, longest %.1f ms%n", heapGrowth, gcCount, gcTotal, gcMax);
+
+        // ---- 4. Budgets ----
+        List<String> failures = new ArrayList<>();
+        check(failures, "frame p99", p99[0], frameP99, "ms");
+        check(failures, "render p99", p99[1], renderP99, "ms");
+        check(failures, "tick p99", p99[2], tickP99, "ms");
+        check(failures, "heap growth", heapGrowth, heapMB, "MB");
+        check(failures, "GC pause", gcMax, gcPause, "ms");
+        if (second > 0 && bulletSum / second < bullets / 2) {
+            failures.add("load: only " + bulletSum / second + " bullets on average, wanted " + bullets);
+        }
+
+        if (failures.isEmpty()) {
+            System.out.println("PASS");
+        } else {
+            for (String f : failures) System.out.println("FAIL " + f);
+        }
+        Platform.exit();
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    // Starts JavaFX, opens the real match screen and starts a match with these players. Returns when it runs.
+    private static GameScene openScene(InputSource p1, InputSource p2) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        GameScene[] scene = new GameScene[1];
+        Platform.startup(() -> {
+            Stage stage = new Stage();
+            GameScene s = new GameScene(stage, () -> { }); // there is no menu to go back to
+            stage.setScene(s.getScene());
+            stage.show();
+            s.warmUp();
+            s.start(GameCharacter.create("Warrior", "P1", 100, 300, SOAK_WEAPON),
+                    GameCharacter.create("Archer", "P2", 1100, 300, SOAK_WEAPON), p1, p2);
+            scene[0] = s;
+            started.countDown();
+        });
+        started.await();
+        return scene[0];
+    }
+
+    // Copies the histograms of the measured phases (they keep counting, we subtract two copies later)
+    private static long[][] counts(GameMetrics metrics) {
+        long[][] counts = new long[PHASES.length][LatencyHistogram.getBucketCount()];
+        for (int k = 0; k < PHASES.length; k++) metrics.histogram(PHASES[k]).copyCounts(counts[k]);
+        return counts;
+    }
+
+    private static void check(List<String> failures, String what, double value, double budget, String unit) {
+        if (value > budget) failures.add(String.format(Locale.ROOT, "%s %.2f %s > %.2f %s", what, value, unit, budget, unit));
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) System.setProperty(key, value);
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    // ScriptedInput's moves, but it only shoots while fewer than 'target' bullets are alive,
+    // so the load stays at the target instead of filling the whole pool
+    static final class SoakInput implements InputSource {
+        private final ScriptedInput moves;
+        private final int target;
+
+        SoakInput(long seed, int target) {
+            this.moves = new ScriptedInput(seed);
+            this.target = target;
+        }
+
+        @Override
+        public int poll(GameController game, int player) {
+            int input = moves.poll(game, player);
+            if (game.getProjectiles().size() >= target) input &= ~PlayerInput.SHOOT;
+            return input;
+        }
+    }
+
+    // Listens to the JVM's "a garbage collection finished" notifications and keeps the pause times.
+    // Collectors that run next to the program (G1's concurrent cycle, ZGC's cycles) are not pauses and are skipped.
+    static final class GcWatch {
+        private long count;
+        private double totalMs, maxMs;
+
+        GcWatch() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (!(bean instanceof NotificationEmitter emitter)) continue;
+                emitter.addNotificationListener((n, handback) -> {
+                    if (!n.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                    GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+                    String name = info.getGcName();
+                    if (name.contains("Concurrent") || name.contains("Cycles")) return;
+                    paused(info.getGcInfo().getDuration());
+                }, null, null);
+            }
+        }
+
+        private synchronized void paused(double ms) {
+            count++;
+            totalMs += ms;
+            maxMs = Math.max(maxMs, ms);
+        }
+
+        synchronized void reset() {
+            count = 0;
+            totalMs = 0;
+            maxMs = 0;
+        }
+
+        synchronized long count() { return count; }
+        synchronized double totalMs() { return totalMs; }
+        synchronized double maxMs() { return maxMs; }
+    }
+}
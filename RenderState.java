@@ -0,0 +1,151 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.EntityStore;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Weapon;
+
+// Everything the screen needs to draw one frame, copied out of the GameController after a tick.
+//
+// The simulation thread fills one of these and hands it to the JavaFX thread through a TripleBuffer.
+// The drawing code only reads this copy, never the live game, so it can't see a half-finished tick.
+// The objects are reused (no garbage): the arrays are made big enough once, in the constructor.
+//
+// It also remembers where everything was one tick earlier, so the screen can slide smoothly
+// from there to here (interpolation) instead of jumping once per tick.
+// With that, the game can tick slower than the screen refreshes without looking choppy.
+//
+// The bullets are also sorted into a SpatialGrid, so a camera that only shows a small part of a big world
+// can find the bullets it has to draw without looking at all of them (see visibleBullets).
+public class RenderState {
+
+    // Size of the grid cells used to find the visible bullets (in world pixels)
+    public static final double CULL_CELL = 128;
+
+    // ---- Players (index = player number) ----
+    public final double[] x, y, dirX, dirY;
+    public final double[] prevX, prevY; // position one tick earlier
+    public final int[] health;
+    public final Weapon[] weapon;
+
+    // ---- Bullets (only the first 'bullets' entries are used) ----
+    public final double[] bulletX, bulletY;
+    public final double[] bulletPrevX, bulletPrevY; // position one tick earlier
+    public final Weapon[] bulletWeapon;
+    public int bullets;
+    public double maxBulletStep; // how far the fastest bullet moves in one tick
+    private final SpatialGrid bulletGrid; // bullets sorted by where they are now
+
+    // ---- Match ----
+    public long tick = -1; // number of ticks simulated when this copy was made (-1 = nothing yet)
+    public long tickNanos; // System.nanoTime() the last tick was due
+    public final long tickLengthNanos; // time between two ticks
+    public boolean over;
+    public int winner = -1; // index of the player who won, -1 = nobody (yet)
+
+    public RenderState(int players, int maxBullets, int tickRate, double width, double height) {
+        x = new double[players];
+        y = new double[players];
+        prevX = new double[players];
+        prevY = new double[players];
+        dirX = new double[players];
+        dirY = new double[players];
+        health = new int[players];
+        weapon = new Weapon[players];
+        tickLengthNanos = 1_000_000_000L / tickRate;
+        bulletGrid = new SpatialGrid(width, height, CULL_CELL, maxBullets);
+
+        bulletX = new double[maxBullets];
+        bulletY = new double[maxBullets];
+        bulletPrevX = new double[maxBullets];
+        bulletPrevY = new double[maxBullets];
+        bulletWeapon = new Weapon[maxBullets];
+    }
+
+    // A state big enough for 'game'
+    public RenderState(GameController game) {
+        this(game.getPlayers().size(), game.getProjectiles().capacity(), game.getTickRate(), game.getWidth(), game.getHeight());
+    }
+
+    // Remembers where the players are now, as the "one tick earlier" positions.
+    // Call it right before the last tick, then copyFrom after it.
+    public void copyPrevious(GameController game) {
+        for (int p = 0; p < prevX.length; p++) {
+            GameCharacter c = game.getPlayer(p);
+            prevX[p] = c.getX();
+            prevY[p] = c.getY();
+        }
+    }
+
+    // Copies the current state of 'game' (call it on the thread that ticks the game)
+    // The players' earlier positions come from copyPrevious, the bullets' are worked out here
+    public void copyFrom(GameController game, long tickNanos) {
+        for (int p = 0; p < x.length; p++) {
+            GameCharacter c = game.getPlayer(p);
+            x[p] = c.getX();
+            y[p] = c.getY();
+            dirX[p] = c.getDirX();
+            dirY[p] = c.getDirY();
+            health[p] = c.getHealth();
+            weapon[p] = c.getWeapon();
+        }
+
+        // The bullets are copied column by column straight out of the store
+        EntityStore s = game.getStore();
+        bullets = game.getProjectiles().size();
+        System.arraycopy(s.bulletX, 0, bulletX, 0, bullets);
+        System.arraycopy(s.bulletY, 0, bulletY, 0, bullets);
+        System.arraycopy(s.bulletWeapon, 0, bulletWeapon, 0, bullets);
+
+        double dt = game.getTickSeconds();
+        double maxSpeed2 = 0;
+        double[] vx = s.bulletVx, vy = s.bulletVy;
+        for (int i = 0; i < bullets; i++) {
+            // Bullets fly in a straight line at a constant speed, so one tick ago is just one step back
+            // (a new bullet steps back to the gun that fired it)
+            bulletPrevX[i] = bulletX[i] - vx[i] * dt;
+            bulletPrevY[i] = bulletY[i] - vy[i] * dt;
+            maxSpeed2 = Math.max(maxSpeed2, vx[i] * vx[i] + vy[i] * vy[i]);
+        }
+        maxBulletStep = Math.sqrt(maxSpeed2) * dt;
+        bulletGrid.rebuild(bulletX, bulletY, bullets);
+
+        tick = game.getTick();
+        this.tickNanos = tickNanos;
+        over = game.isOver();
+        GameCharacter w = game.getWinner();
+        winner = w == null ? -1 : game.getPlayers().indexOf(w);
+    }
+
+    // Finds the bullets that may be drawn inside the world rectangle (x0, y0) - (x1, y1) and writes their indexes into 'out'.
+    // Only the grid cells under the rectangle are looked at, so the cost depends on what is visible, not on the world.
+    // The rectangle is grown by maxBulletStep, because a bullet is drawn up to one step behind where it is now.
+    // Returns how many were found (a few just outside the rectangle can be among them).
+    public int visibleBullets(double x0, double y0, double x1, double y1, int[] out) {
+        double m = maxBulletStep;
+        int col0 = bulletGrid.col(x0 - m), col1 = bulletGrid.col(x1 + m);
+        int row0 = bulletGrid.row(y0 - m), row1 = bulletGrid.row(y1 + m);
+
+        int n = 0;
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                for (int k = bulletGrid.start(col, row), end = bulletGrid.end(col, row); k < end; k++) {
+                    out[n++] = bulletGrid.item(k);
+                }
+            }
+        }
+        return n;
+    }
+
+    // How far the screen is from the earlier positions (0.0) to the newest ones (1.0) at time 'now' (System.nanoTime)
+    // We always draw one tick "in the past", that is what makes the movement smooth
+    public double alpha(long now) {
+        double alpha = (double) (now - tickNanos) / tickLengthNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    // Positions in between two ticks (alpha from the method above)
+    public double playerX(int p, double alpha) { return prevX[p] + (x[p] - prevX[p]) * alpha; }
+    public double playerY(int p, double alpha) { return prevY[p] + (y[p] - prevY[p]) * alpha; }
+    public double bulletX(int i, double alpha) { return bulletPrevX[i] + (bulletX[i] - bulletPrevX[i]) * alpha; }
+    public double bulletY(int i, double alpha) { return bulletPrevY[i] + (bulletY[i] - bulletPrevY[i]) * alpha; }
+}
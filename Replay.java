@@ -0,0 +1,146 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Weapon;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// A recorded match (see ReplayRecorder), read from a memory-mapped file.
+//
+// newGame() builds the match exactly as it started, newInput() presses the recorded buttons,
+// and play() runs it again without drawing anything: as fast as possible, or at the real speed.
+// Weapons are stored by name, so the weapons file must be the same as when the match was recorded.
+public class Replay {
+
+    private final ByteBuffer data; // the whole file
+    private final long ticks;
+    private final int winner; // index of the player who won, -1 = nobody
+    private final int tickRate;
+    private final double width, height;
+    private final int maxProjectiles;
+    private final String[] types, names, weapons;
+    private final double[] startX, startY;
+    private final int ticksStart; // where the tick records begin
+
+    private Replay(ByteBuffer data) throws IOException {
+        this.data = data;
+
+        if (data.getInt(0) != ReplayRecorder.MAGIC) throw new IOException("Not a replay file");
+        if (data.getShort(4) != ReplayRecorder.VERSION) throw new IOException("Unsupported replay version " + data.getShort(4));
+
+        this.ticks = data.getLong(ReplayRecorder.TICKS_OFFSET);
+        long end = data.getLong(ReplayRecorder.END_OFFSET);
+        this.winner = data.getInt(ReplayRecorder.WINNER_OFFSET);
+        if (end == 0) throw new IOException("Replay was not finished (the recorder was never closed)");
+        data.limit((int) end);
+
+        data.position(ReplayRecorder.FIXED_HEADER);
+        this.tickRate = data.getInt();
+        this.width = data.getDouble();
+        this.height = data.getDouble();
+        this.maxProjectiles = data.getInt();
+
+        int players = (int) readVarint(data);
+        types = new String[players];
+        names = new String[players];
+        weapons = new String[players];
+        startX = new double[players];
+        startY = new double[players];
+        for (int p = 0; p < players; p++) {
+            types[p] = readString(data);
+            names[p] = readString(data);
+            weapons[p] = readString(data);
+            startX[p] = data.getDouble();
+            startY[p] = data.getDouble();
+        }
+        this.ticksStart = data.position();
+    }
+
+    // Opens a replay file
+    public static Replay open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // A new game with the same players, weapons and arena as the recorded one (nothing played yet)
+    public GameController newGame() {
+        List<GameCharacter> players = new ArrayList<>();
+        for (int p = 0; p < types.length; p++) {
+            players.add(GameCharacter.create(types[p], names[p], startX[p], startY[p], Weapon.createWeapon(weapons[p])));
+        }
+        return new GameController(width, height, players, maxProjectiles, tickRate);
+    }
+
+    // Presses the recorded buttons, one tick at a time (one ReplayInput plays for all players)
+    public ReplayInput newInput() {
+        ByteBuffer ticksData = data.duplicate();
+        ticksData.position(ticksStart);
+        return new ReplayInput(ticksData.slice(), types.length, ticks);
+    }
+
+    // Plays the whole replay on 'game' (from newGame()) and returns the number of ticks played.
+    // realTime = false: as fast as the CPU allows. true: one tick every 1/tickRate seconds, like the real match.
+    public long play(GameController game, boolean realTime) {
+        ReplayInput input = newInput();
+        InputSource[] sources = new InputSource[types.length];
+        Arrays.fill(sources, input);
+
+        if (!realTime) return HeadlessMatch.play(game, sources, ticks);
+
+        int[] inputs = new int[sources.length];
+        long tickNanos = 1_000_000_000L / tickRate;
+        long start = System.nanoTime();
+        long t = 0;
+        for (; t < ticks; t++) {
+            // Wait until this tick is due
+            long due = start + t * tickNanos;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+
+            if (game.isOver()) break;
+            input.beginTick(due);
+            for (int i = 0; i < sources.length; i++) inputs[i] = input.poll(game, i);
+            game.tick(inputs);
+        }
+        return t;
+    }
+
+    public long getTicks() { return ticks; }
+    public int getWinner() { return winner; }
+    public int getTickRate() { return tickRate; }
+    public int getPlayerCount() { return types.length; }
+    public String getType(int player) { return types[player]; }
+    public String getName(int player) { return names[player]; }
+    public String getWeapon(int player) { return weapons[player]; }
+    public int getSizeBytes() { return data.limit(); }
+
+    // ---- Reading helpers (the opposite of ReplayRecorder's) ----
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0); // high bit set = more bytes
+        return value;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
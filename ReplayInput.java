@@ -0,0 +1,50 @@
+package com.ozyra.battlearena.controller;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Presses the buttons stored in a replay (see Replay.newInput()).
+// One object plays for every player: beginTick moves to the next tick, poll(player) reads its buttons.
+// After the last recorded tick nobody presses anything.
+public class ReplayInput implements InputSource {
+
+    private final ByteBuffer in; // the tick records
+    private final int[] frame; // the buttons of the current tick
+    private final long totalTicks;
+    private long played; // ticks started so far
+    private long repeats; // ticks left that keep the current buttons
+
+    ReplayInput(ByteBuffer in, int players, long totalTicks) {
+        this.in = in;
+        this.frame = new int[players];
+        this.totalTicks = totalTicks;
+        this.repeats = totalTicks == 0 ? 0 : Replay.readVarint(in);
+    }
+
+    @Override
+    public void beginTick(long deadlineNanos) {
+        if (played >= totalTicks) { // replay is over
+            Arrays.fill(frame, 0);
+            return;
+        }
+        played++;
+
+        if (repeats > 0) { // same buttons as the tick before
+            repeats--;
+            return;
+        }
+
+        // New buttons: the file stores which ones changed (new XOR old)
+        for (int p = 0; p < frame.length; p++) {
+            frame[p] ^= (int) Replay.readVarint(in);
+        }
+        if (played < totalTicks) repeats = Replay.readVarint(in); // how long these buttons stay
+    }
+
+    @Override
+    public int poll(GameController game, int player) {
+        return frame[player];
+    }
+
+    public boolean isFinished() { return played >= totalTicks; }
+}
@@ -0,0 +1,174 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.GameCharacter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Records a match into a small binary file, so it can be played again later (see Replay).
+//
+// The game is deterministic: the same players + the same buttons every tick = the same match.
+// So we only store how the match started and the buttons of every tick, never any positions.
+//
+// File layout:
+//   header: magic, version, tick count, where the data ends, winner,
+//           tick rate, arena size, bullet pool size, and per player: class, name, weapon, x, y
+//   ticks:  buttons rarely change, so we write (how many ticks repeated the last buttons),
+//           then the NEW buttons as (new XOR old) per player, all as varints (1 byte for small numbers).
+//           Standing still for a whole second costs 1-2 bytes.
+//
+// The file is written through a memory-mapped buffer (no system call per tick),
+// mapped in chunks that are added as the match gets longer.
+public class ReplayRecorder implements AutoCloseable {
+
+    static final int MAGIC = 0x42415250; // "BARP"
+    static final short VERSION = 2; // 2: swept bullet collision (matches of version 1 would play out differently)
+
+    // Offsets of the header fields that are only known at the end of the match
+    static final int TICKS_OFFSET = 8;
+    static final int END_OFFSET = 16;
+    static final int WINNER_OFFSET = 24;
+    static final int FIXED_HEADER = 28;
+
+    private static final int CHUNK = 64 * 1024; // bytes mapped at a time
+
+    private final FileChannel channel;
+    private final GameController game;
+    private final int[] previous; // the buttons of the last written tick
+    private final int maxTickBytes; // worst case size of one tick record
+
+    private MappedByteBuffer out;
+    private long base; // file position where 'out' starts
+    private long ticks; // ticks recorded so far
+    private long repeats; // ticks with the same buttons as 'previous' that are not written yet
+    private boolean closed;
+
+    // Creates 'file' and writes the starting state of 'game' (call this before the first tick)
+    public ReplayRecorder(Path file, GameController game) throws IOException {
+        this.game = game;
+        this.previous = new int[game.getPlayers().size()];
+        this.maxTickBytes = 10 + 5 * previous.length;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.out = channel.map(FileChannel.MapMode.READ_WRITE, 0, CHUNK);
+
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) 0); // unused
+        out.putLong(0); // tick count (filled in by close)
+        out.putLong(0); // end of data (filled in by close)
+        out.putInt(-1); // winner (filled in by close)
+
+        out.putInt(game.getTickRate());
+        out.putDouble(game.getWidth());
+        out.putDouble(game.getHeight());
+        out.putInt(game.getProjectiles().capacity());
+
+        // The choices of the selection screen, for every player
+        putVarint(previous.length);
+        for (GameCharacter c : game.getPlayers()) {
+            ensure(64);
+            putString(c.getClass().getSimpleName()); // "Warrior", "Mage", "Archer" (see GameCharacter.create)
+            putString(c.getName());
+            putString(c.getWeapon().getName());
+            ensure(16);
+            out.putDouble(c.getX());
+            out.putDouble(c.getY());
+        }
+    }
+
+    // Adds one tick (the buttons every player pressed). Creates no garbage.
+    public void record(int[] inputs) {
+        if (closed) return;
+        ticks++;
+
+        boolean same = true;
+        for (int p = 0; p < previous.length; p++) {
+            if (inputs[p] != previous[p]) {
+                same = false;
+                break;
+            }
+        }
+        if (same) { // nothing changed: just count it
+            repeats++;
+            return;
+        }
+
+        ensure(maxTickBytes);
+        putVarint(repeats);
+        for (int p = 0; p < previous.length; p++) {
+            putVarint((inputs[p] ^ previous[p]) & 0xFFFFFFFFL); // only the buttons that changed are set
+            previous[p] = inputs[p];
+        }
+        repeats = 0;
+    }
+
+    public long getTicks() { return ticks; }
+
+    // Finishes the file: writes the last repeated ticks, the tick count and the winner
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+
+        try {
+            ensure(maxTickBytes);
+            putVarint(repeats);
+            long end = base + out.position();
+            out.force();
+
+            // Fill in the header fields we didn't know at the start
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, FIXED_HEADER);
+            header.putLong(TICKS_OFFSET, ticks);
+            header.putLong(END_OFFSET, end);
+            GameCharacter winner = game.getWinner();
+            header.putInt(WINNER_OFFSET, winner == null ? -1 : game.getPlayers().indexOf(winner));
+            header.force();
+
+            // Cut off the unused end of the last chunk
+            // (not allowed on some systems while the file is still mapped, then the padding stays; Replay reads up to 'end')
+            try {
+                channel.truncate(end);
+            } catch (IOException ignored) {
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Makes sure there are at least 'bytes' free bytes in the mapped buffer
+    private void ensure(int bytes) {
+        if (out.remaining() >= bytes) return;
+        try {
+            base += out.position();
+            out = channel.map(FileChannel.MapMode.READ_WRITE, base, Math.max(CHUNK, bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Varint: 7 bits per byte, the high bit says "more bytes follow"
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private void putString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ensure(5 + bytes.length);
+        putVarint(bytes.length);
+        out.put(bytes);
+    }
+}
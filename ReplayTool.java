@@ -0,0 +1,105 @@
+package com.ozyra.battlearena.tools;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.HeadlessMatch;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.Replay;
+import com.ozyra.battlearena.controller.ReplayRecorder;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.model.GameCharacter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Command line tool for replay files.
+//
+// Usage:
+//   ReplayTool record <dir> [matches] [maxSecondsPerMatch]   records scripted matches (same matchups as BatchRunner)
+//   ReplayTool play <file or dir> [realtime]                 plays replays again without a window and checks
+//                                                            that every match ends exactly like it was recorded
+public class ReplayTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ReplayTool record <dir> [matches] [maxSeconds] | ReplayTool play <file or dir> [realtime]");
+            return;
+        }
+
+        switch (args[0]) {
+            case "record" -> record(Path.of(args[1]),
+                    args.length > 2 ? Integer.parseInt(args[2]) : 100,
+                    args.length > 3 ? Integer.parseInt(args[3]) : 120);
+            case "play" -> play(Path.of(args[1]), args.length > 2 && args[2].equals("realtime"));
+            default -> System.out.println("Unknown command: " + args[0]);
+        }
+    }
+
+    // Plays 'matches' scripted matches and saves each one as <dir>/match-00000.replay, ...
+    static void record(Path dir, int matches, int maxSeconds) throws IOException {
+        Files.createDirectories(dir);
+        long bytes = 0, ticks = 0;
+        long startNanos = System.nanoTime();
+
+        for (int m = 0; m < matches; m++) {
+            int left = m % BatchRunner.LOADOUTS;
+            int right = (m / BatchRunner.LOADOUTS) % BatchRunner.LOADOUTS;
+            GameCharacter p1 = BatchRunner.create(left, "P1", 100);
+            GameCharacter p2 = BatchRunner.create(right, "P2", 1100);
+            GameController game = new GameController(1200, 600, p1, p2);
+            InputSource[] sources = {new ScriptedInput(m * 2L), new ScriptedInput(m * 2L + 1)};
+
+            Path file = dir.resolve(String.format("match-%05d.replay", m));
+            try (ReplayRecorder recorder = new ReplayRecorder(file, game)) {
+                ticks += HeadlessMatch.play(game, sources, (long) maxSeconds * game.getTickRate(), recorder);
+            }
+            bytes += Files.size(file);
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("Recorded %d matches (%d ticks) in %.2f s into %s%n", matches, ticks, seconds, dir);
+        System.out.printf("Size: %d bytes total, %.0f bytes per match, %.3f bytes per tick%n",
+                bytes, (double) bytes / Math.max(1, matches), (double) bytes / Math.max(1, ticks));
+    }
+
+    // Plays one replay, or every *.replay file in a directory
+    static void play(Path path, boolean realTime) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> list = Files.list(path)) {
+                files = list.filter(f -> f.toString().endsWith(".replay")).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+
+        long ticks = 0;
+        int mismatches = 0;
+        long startNanos = System.nanoTime();
+
+        for (Path file : files) {
+            Replay replay = Replay.open(file);
+            GameController game = replay.newGame();
+            long played = replay.play(game, realTime);
+            ticks += played;
+
+            // Deterministic = same length and same winner as the recorded match
+            GameCharacter winnerCharacter = game.getWinner();
+            int winner = winnerCharacter == null ? -1 : game.getPlayers().indexOf(winnerCharacter);
+            if (played != replay.getTicks() || winner != replay.getWinner()) {
+                mismatches++;
+                System.out.printf("MISMATCH %s: recorded %d ticks / winner %d, replayed %d ticks / winner %d%n",
+                        file.getFileName(), replay.getTicks(), replay.getWinner(), played, winner);
+            } else if (files.size() == 1) {
+                System.out.printf("%s: %d ticks, winner %s%n", file.getFileName(), played,
+                        winner < 0 ? "none" : replay.getName(winner) + " (" + replay.getType(winner) + ")");
+            }
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("Replayed %d matches (%d ticks) in %.2f s -> %.0f ticks/s, %d mismatches%n",
+                files.size(), ticks, seconds, ticks / seconds, mismatches);
+    }
+}
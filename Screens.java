@@ -0,0 +1,91 @@
+package com.ozyra.battlearena.scenes;
+
+import com.ozyra.battlearena.controller.GameController;
+import com.ozyra.battlearena.controller.HeadlessMatch;
+import com.ozyra.battlearena.controller.InputSource;
+import com.ozyra.battlearena.controller.ScriptedInput;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.WeaponRegistry;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+
+// Holds the two screens of the game, each one built only ONCE:
+// - the menu (SelectionScene), right at the start
+// - the match screen (GameScene), while the menu is shown (see preload)
+// Going from the menu to a match and back just puts the existing Scene on the stage again,
+// and the match screen resets itself in place (GameScene.start).
+public class Screens {
+
+    // Headless matches played by preload, so the game logic is already compiled by the JIT when the first real match starts
+    private static final int WARM_UP_MATCHES = 20;
+    private static final int WARM_UP_SECONDS = 10;
+
+    private final Stage stage;
+    private final SelectionScene menu;
+    private GameScene game; // null until preload built it (or the first START, if that was quicker)
+
+    public Screens(Stage stage) {
+        this.stage = stage;
+        this.menu = new SelectionScene(this);
+    }
+
+    // Shows the menu (the choices of the last match are still selected)
+    public void showMenu() {
+        stage.setScene(menu.getScene());
+    }
+
+    // Shows the match screen and starts a match with these players
+    public void startMatch(GameCharacter p1, GameCharacter p2, boolean cpuOpponent) {
+        GameScene g = game();
+        stage.setScene(g.getScene());
+        g.start(p1, p2, cpuOpponent);
+    }
+
+    // The match screen, built the first time it is needed (on the JavaFX thread)
+    private GameScene game() {
+        if (game == null) game = new GameScene(stage, this::showMenu);
+        return game;
+    }
+
+    // Gets everything the match screen needs ready while the player is still in the menu.
+    // Call it once the menu is shown; it returns right away.
+    public void preload() {
+        Thread t = new Thread(() -> {
+            // 1. Work that doesn't touch the screen, on this thread:
+            //    the weapon table (assets/weapons.csv), the fonts, gradients and colors
+            //    (static fields of the classes below) and the JIT for the game logic
+            WeaponRegistry.count();
+            initialize(GameScene.class, SpriteAtlas.class, Camera.class, DirtyRegions.class, KeyboardInput.class);
+            warmUpSimulation();
+
+            // 2. JavaFX objects and pictures must be made on the JavaFX thread:
+            //    build the match screen there and draw all its sprites into the atlas
+            Platform.runLater(() -> game().warmUp());
+        }, "preload");
+        t.setDaemon(true); // never keeps the game from exiting
+        t.start();
+    }
+
+    // Runs the static initializers of these classes now (instead of during the first match)
+    private static void initialize(Class<?>... classes) {
+        for (Class<?> c : classes) {
+            try {
+                Class.forName(c.getName(), true, c.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e); // can't happen, we already hold the class
+            }
+        }
+    }
+
+    // Plays a few quick matches without a window (same robots as the BatchRunner)
+    private static void warmUpSimulation() {
+        String[] types = {"Warrior", "Mage", "Archer"};
+        for (int m = 0; m < WARM_UP_MATCHES; m++) {
+            GameCharacter p1 = GameCharacter.create(types[m % 3], "P1", 100, 300, WeaponRegistry.forSlot(m % 3));
+            GameCharacter p2 = GameCharacter.create(types[(m / 3) % 3], "P2", 1100, 300, WeaponRegistry.forSlot((m / 3) % 3));
+            GameController game = new GameController(1200, 600, p1, p2);
+            InputSource[] sources = {new ScriptedInput(m * 2L), new ScriptedInput(m * 2L + 1)};
+            HeadlessMatch.play(game, sources, (long) WARM_UP_SECONDS * game.getTickRate());
+        }
+    }
+}
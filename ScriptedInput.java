@@ -0,0 +1,65 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.GameCharacter;
+
+import java.util.SplittableRandom;
+
+// A simple "robot player" for headless matches:
+// it walks to the nearest enemy's height, faces him and keeps shooting,
+// and now and then dodges up or down for a moment.
+// The same seed always gives the same moves, so matches can be repeated exactly.
+public class ScriptedInput implements InputSource {
+
+    private final SplittableRandom random;
+    private int dodgeTicks; // how many more ticks we keep dodging
+    private int dodgeButton; // UP or DOWN while dodging
+
+    public ScriptedInput(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int poll(GameController game, int player) {
+        GameCharacter me = game.getPlayer(player);
+        GameCharacter enemy = nearestEnemy(game, me);
+        if (enemy == null) return PlayerInput.NONE; // nobody left to fight
+
+        int input = PlayerInput.SHOOT; // always shooting, the cooldown decides when a bullet comes out
+
+        // 1. Move up/down: either dodge, or line up with the enemy
+        if (dodgeTicks > 0) {
+            dodgeTicks--;
+            input |= dodgeButton;
+        } else if (random.nextInt(60) == 0) { // about twice a second at 120 ticks/s
+            dodgeTicks = 20 + random.nextInt(40);
+            dodgeButton = random.nextBoolean() ? PlayerInput.UP : PlayerInput.DOWN;
+        } else {
+            double dy = enemy.getY() - me.getY();
+            if (dy > 4) input |= PlayerInput.DOWN;
+            else if (dy < -4) input |= PlayerInput.UP;
+        }
+
+        // 2. Face the enemy. LEFT/RIGHT are applied after UP/DOWN, so this sets the shooting direction
+        input |= enemy.getX() < me.getX() ? PlayerInput.LEFT : PlayerInput.RIGHT;
+
+        return input;
+    }
+
+    // The closest living player that is not 'me'
+    private static GameCharacter nearestEnemy(GameController game, GameCharacter me) {
+        GameCharacter nearest = null;
+        double best = Double.MAX_VALUE;
+
+        for (GameCharacter c : game.getPlayers()) {
+            if (c == me || c.isDead()) continue;
+            double dx = c.getX() - me.getX(), dy = c.getY() - me.getY();
+            double distance = dx * dx + dy * dy;
+            if (distance < best) {
+                best = distance;
+                nearest = c;
+            }
+        }
+
+        return nearest;
+    }
+}
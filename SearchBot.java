@@ -0,0 +1,224 @@
+package com.ozyra.battlearena.controller;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+// A computer player that thinks ahead ("Monte Carlo search").
+//
+// For every possible move (walk in one of 8 directions or stand still, shoot or not) it plays the
+// match forward many times on copies of the game, with both players continuing like a ScriptedInput,
+// and picks the move that worked out best on average (health difference, winning).
+//
+// The thinking runs on background threads, never on the game thread:
+//   - poll() only hands out the latest decision and, when the search asks for it,
+//     copies the current match state into a buffer (about a microsecond)
+//   - a search thread waits for that state and splits the play-outs over a pool of workers
+//     (one per CPU core, minus one for the game itself)
+// More cores = more play-outs and a longer look ahead.
+//
+// One bot can play many matches: make it once and call reset() before each new match.
+// Its threads and its copies of the game are reused, only close() stops them.
+public class SearchBot implements InputSource, AutoCloseable {
+
+    // The moves that are tried
+    private static final int[] MOVES = {
+            PlayerInput.NONE,
+            PlayerInput.UP, PlayerInput.DOWN, PlayerInput.LEFT, PlayerInput.RIGHT,
+            PlayerInput.UP | PlayerInput.LEFT, PlayerInput.UP | PlayerInput.RIGHT,
+            PlayerInput.DOWN | PlayerInput.LEFT, PlayerInput.DOWN | PlayerInput.RIGHT,
+    };
+    private static final int ACTIONS = MOVES.length * 2; // every move with and without shooting
+
+    private static final int COMMIT_TICKS = 15; // a tried move is held this long, then the play-out continues scripted
+    private static final int ROLLOUTS_PER_WORKER = 2; // play-outs per move and worker
+
+    private final int player;
+    private final int workers;
+    private final int depth; // ticks per play-out
+    private final ExecutorService pool;
+    private final Thread searchThread;
+
+    // ---- Hand-over between the game thread and the search thread ----
+    private final AtomicBoolean wantState = new AtomicBoolean(); // search thread: "give me the current state"
+    private final AtomicBoolean stateReady = new AtomicBoolean(); // game thread: "it's in the buffer"
+    private ByteBuffer state; // the state to search from (written by the game thread only while wantState is set)
+    private GameController[] copies; // one private copy of the game per worker
+    private volatile int decision = PlayerInput.NONE; // latest result, read by the game thread every tick
+    private volatile int match; // counts reset() calls: a decision or copy of an older match is not used
+    private int copiesMatch = -1; // match the copies were made for (game thread only)
+    private volatile int stateMatch; // match of the state in the buffer
+    private volatile int decisionMatch = -1; // match 'decision' was searched for
+    private volatile long searches; // how many searches finished
+    private volatile boolean running = true;
+
+    // Plays for 'player' (0 = P1, 1 = P2), with a worker per spare CPU core
+    public SearchBot(int player) {
+        this(player, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public SearchBot(int player, int workers) {
+        this.player = player;
+        this.workers = workers;
+        this.depth = Math.min(240, 60 + 30 * workers); // look further ahead when there are more cores
+
+        this.pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "bot-worker");
+            t.setDaemon(true); // don't keep the program alive
+            return t;
+        });
+        this.searchThread = new Thread(this::searchLoop, "bot-search");
+        searchThread.setDaemon(true);
+    }
+
+    // Called by the game every tick: answers at once with the latest decision
+    @Override
+    public int poll(GameController game, int player) {
+        if (copies == null) start(game);
+
+        // The search thread finished and wants the current state: copy it (it's not reading the buffer or the copies now)
+        if (wantState.get()) {
+            int m = match;
+            if (copiesMatch != m) copyGame(game); // first tick of a new match
+            game.writeState(state.clear());
+            state.flip();
+            stateMatch = m;
+            wantState.set(false);
+            stateReady.set(true);
+            LockSupport.unpark(searchThread);
+        }
+        // Until the first search of this match is done, stand still
+        return decisionMatch == match ? decision : PlayerInput.NONE;
+    }
+
+    // Call before the bot plays a new match (the search of the old match is finished and thrown away)
+    public void reset() {
+        match++;
+    }
+
+    // First tick ever: make the buffer and the copies of the game for the workers and start thinking
+    private void start(GameController game) {
+        copies = new GameController[workers];
+        copyGame(game);
+        wantState.set(true);
+        searchThread.start();
+    }
+
+    // Makes the workers' copies match 'game', reusing the copies (and the buffer) of the last match where possible
+    private void copyGame(GameController game) {
+        if (state == null || state.capacity() < game.getStateSize()) state = ByteBuffer.allocate(game.getStateSize());
+        for (int w = 0; w < workers; w++) copies[w] = game.copy(copies[w], state.clear());
+        copiesMatch = match;
+    }
+
+    // ---- Search thread ----
+
+    private void searchLoop() {
+        SplittableRandom seeds = new SplittableRandom(player);
+        List<Callable<double[]>> tasks = new ArrayList<>();
+
+        while (running) {
+            // 1. Wait for the game thread to hand over the state
+            while (running && !stateReady.get()) LockSupport.parkNanos(1_000_000L);
+            if (!running) break;
+            stateReady.set(false);
+            int searching = stateMatch;
+
+            // 2. Every worker plays all moves a few times, each on its own copy
+            tasks.clear();
+            for (int w = 0; w < workers; w++) {
+                GameController copy = copies[w];
+                long seed = seeds.nextLong();
+                tasks.add(() -> evaluate(copy, seed));
+            }
+
+            double[] total = new double[ACTIONS];
+            try {
+                for (Future<double[]> result : pool.invokeAll(tasks)) {
+                    double[] scores = result.get();
+                    for (int a = 0; a < ACTIONS; a++) total[a] += scores[a];
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (ExecutionException e) {
+                System.err.println("Bot search failed: " + e.getCause());
+                continue;
+            }
+
+            // 3. Publish the best move and ask for a fresh state
+            decision = action(best(total));
+            decisionMatch = searching;
+            searches++;
+            wantState.set(true);
+        }
+    }
+
+    // Plays every action ROLLOUTS_PER_WORKER times on 'copy' and returns the summed scores
+    private double[] evaluate(GameController copy, long seed) {
+        ByteBuffer start = state.duplicate(); // own position, same bytes (read only)
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] scores = new double[ACTIONS];
+        int players = copy.getPlayers().size();
+        int[] inputs = new int[players];
+        InputSource[] script = new InputSource[players];
+
+        for (int a = 0; a < ACTIONS; a++) {
+            for (int r = 0; r < ROLLOUTS_PER_WORKER; r++) {
+                copy.readState(start.rewind());
+                for (int p = 0; p < players; p++) script[p] = new ScriptedInput(random.nextLong());
+
+                for (int t = 0; t < depth && !copy.isOver(); t++) {
+                    for (int p = 0; p < players; p++) inputs[p] = script[p].poll(copy, p);
+                    if (t < COMMIT_TICKS) inputs[player] = action(a); // the move we are trying
+                    copy.tick(inputs);
+                }
+                scores[a] += score(copy);
+            }
+        }
+        return scores;
+    }
+
+    // How good the end of a play-out is for us
+    private double score(GameController game) {
+        double score = 0;
+        for (int p = 0; p < game.getPlayers().size(); p++) {
+            int health = game.getPlayer(p).getHealth();
+            score += p == player ? health : -health;
+        }
+        if (game.isOver()) score += game.getWinner() == game.getPlayer(player) ? 1000 : -1000;
+        return score;
+    }
+
+    private static int action(int index) {
+        int move = MOVES[index % MOVES.length];
+        return index < MOVES.length ? move | PlayerInput.SHOOT : move;
+    }
+
+    private static int best(double[] scores) {
+        int best = 0;
+        for (int a = 1; a < scores.length; a++) {
+            if (scores[a] > scores[best]) best = a;
+        }
+        return best;
+    }
+
+    public int getDepth() { return depth; }
+    public int getWorkers() { return workers; }
+    public long getSearches() { return searches; }
+
+    // Stops thinking (call this when the match is over)
+    @Override
+    public void close() {
+        running = false;
+        searchThread.interrupt();
+        pool.shutdownNow();
+    }
+}
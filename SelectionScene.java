@@ -7,15 +7,19 @@ import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
 
+// The menu. It is built once (see Screens) and shown again after every match.
 public class SelectionScene {
 
+    // The styles of the menu (loaded once, together with the scene)
+    private static final String STYLESHEET = "file:assets/styles.css";
+
     // the container for the entire screen content
     private final Scene scene;
 
     // Constructor: builds the menu UI
-    public SelectionScene(Stage stage) {
+    // screens: shows the match screen when START GAME is clicked
+    public SelectionScene(Screens screens) {
 
         // 1. SETUP layout
         // VBox (Vertical Box) stacks items on the top of each other
@@ -55,6 +59,11 @@ public class SelectionScene {
         p2Weapon.getItems().addAll("Sword", "Bow", "Magic");
         p2Weapon.setValue("Sword");
 
+        // Who plays player 2: a second person on the same keyboard, or the computer
+        ChoiceBox<String> p2Control = new ChoiceBox<>();
+        p2Control.getItems().addAll("Human", "CPU");
+        p2Control.setValue("Human");
+
         // 5. Start btn logic
         Button start = new Button("START GAME");
 
@@ -62,35 +71,19 @@ public class SelectionScene {
         start.setOnAction(e -> {
 
             // ---- CREATE PLAYER1 OBJECT ----
-            GameCharacter player1 = switch (p1Character.getValue()) {
-
-                // If they picked Mage, create a new Mage object
-                case "Mage" -> new Mage("P1", 100, 300,
-                        Weapon.createWeapon(p1Weapon.getValue()));
-
-                // If they picked Archer, create a new Archer object
-                case "Archer" -> new Archer("P1", 100, 300,
-                        Weapon.createWeapon(p1Weapon.getValue()));
-
-                // Default to Warrior
-                default -> new Warrior("P1", 100, 300,
-                        Weapon.createWeapon(p1Weapon.getValue()));
-            };
+            // GameCharacter.create picks Mage, Archer or (by default) Warrior for us
+            GameCharacter player1 = GameCharacter.create(p1Character.getValue(), "P1", 100, 300,
+                    Weapon.createWeapon(p1Weapon.getValue()));
 
             // ---- CREATE PLAYER 2 OBJECT ----
             // P2 starts at X=1100 (Right side of screen)
-            GameCharacter player2 = switch (p2Character.getValue()) {
-                case "Mage" -> new Mage("P2", 1100, 300,
-                        Weapon.createWeapon(p2Weapon.getValue()));
-                case "Archer" -> new Archer("P2", 1100, 300,
-                        Weapon.createWeapon(p2Weapon.getValue()));
-                default -> new Warrior("P2", 1100, 300,
-                        Weapon.createWeapon(p2Weapon.getValue()));
-            };
+            GameCharacter player2 = GameCharacter.create(p2Character.getValue(), "P2", 1100, 300,
+                    Weapon.createWeapon(p2Weapon.getValue()));
 
             // Switch the scene
-            // Create the actual GameScene, pass the players we just created, and set it on the stage
-            stage.setScene(new GameScene(stage, player1, player2).getScene());
+            // Show the match screen (built only once) and start it with the players we just created
+            boolean cpu = p2Control.getValue().equals("CPU");
+            screens.startMatch(player1, player2, cpu);
         });
 
         // ---- ADD EVERYTHING TO ROOT ----
@@ -105,6 +98,7 @@ public class SelectionScene {
                 p2Label,
                 p2Character,
                 p2Weapon,
+                p2Control,
 
                 start
         );
@@ -113,7 +107,7 @@ public class SelectionScene {
         scene = new Scene(root, 1200, 600);
 
         // Load the CSS file for styling
-        scene.getStylesheets().add("file:assets/styles.css");
+        scene.getStylesheets().add(STYLESHEET);
     }
 
     // Helper to give the scene to the Stage
@@ -4,28 +4,62 @@ package com.ozyra.battlearena.model;
 public class SimpleWeapon implements Weapon {
 
     //Basics stats for this specific weapon
+    private final int id; // position in the WeaponRegistry (-1 = not registered)
     private final String name;
     private final int damage;
     private final double speed; // How fast the bullet flies
     private final long cooldown; // Time in ms before you can shoot again
+    private final int shots; // bullets per shot (1 = single, more = a spread)
+    private final double spread; // angle (radians) between the outer bullets of a spread
 
     // Constructor: sets the stats when we create a weapon
     public SimpleWeapon(String name, int damage, double speed, long cooldown) {
+        this(-1, name, damage, speed, cooldown, 1, 0);
+    }
+
+    // Full constructor, used by the WeaponRegistry
+    public SimpleWeapon(int id, String name, int damage, double speed, long cooldown, int shots, double spread) {
+        this.id = id;
         this.name = name;
         this.damage = damage;
         this.speed = speed;
         this.cooldown = cooldown;
+        this.shots = shots;
+        this.spread = spread;
+    }
+
+    // A copy of this weapon with other stats (same id, name and spread), e.g. to try out a balance change
+    public SimpleWeapon withStats(int damage, double speed, long cooldown) {
+        return new SimpleWeapon(id, name, damage, speed, cooldown, shots, spread);
     }
 
     //Standard getters required by the interface
+    @Override public int getId() { return id; }
     @Override public String getName() { return name; }
     @Override public int getDamage() { return damage; }
     @Override public double getSpeed() { return speed; }
     @Override public long getCooldownMs() { return cooldown; }
+    @Override public int getShotCount() { return shots; }
 
     // the factory method that actually spawns the bullet
+    // 'target' is reused (e.g. a pool slot), so no new object is created here
     @Override
-    public Projectile createProjectile(double x, double y, double dx, double dy, GameCharacter owner) {
+    public Projectile createProjectile(Projectile target, double x, double y, double dx, double dy, GameCharacter owner) {
+        return createProjectile(target, x, y, dx, dy, owner, 0);
+    }
+
+    // Bullet number 'shot' of a spread: turned away from (dx,dy) so all bullets form an even fan
+    @Override
+    public Projectile createProjectile(Projectile target, double x, double y, double dx, double dy, GameCharacter owner, int shot) {
+
+        // 0. Spread weapons: rotate the direction for this bullet (-spread/2 .. +spread/2)
+        if (shots > 1) {
+            double angle = spread * ((double) shot / (shots - 1) - 0.5);
+            double cos = Math.cos(angle), sin = Math.sin(angle);
+            double rx = dx * cos - dy * sin;
+            dy = dx * sin + dy * cos;
+            dx = rx;
+        }
 
         // 1. Calculate the length of the direction vector using Pythagoras (a^2 + b^2 = c^2)
         double len = Math.sqrt(dx * dx + dy * dy);
@@ -33,8 +67,8 @@ public class SimpleWeapon implements Weapon {
         // 2. safety check: avoid dividing by zero if the player isn't moving
         if (len == 0) len = 1;
 
-        // 3. Create the bullet
-        return new Projectile(
+        // 3. Fill in the bullet
+        target.set(
                 x, y, // start at player's position
 
                 // Math:
@@ -44,7 +78,9 @@ public class SimpleWeapon implements Weapon {
                 dy / len * speed,
 
                 damage, // Pass weapon damage
-                owner // Pass who shoot it
+                owner, // Pass who shoot it
+                this // and which weapon (so the bullet can be drawn in this weapon's style)
         );
+        return target;
     }
 }
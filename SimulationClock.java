@@ -0,0 +1,82 @@
+package com.ozyra.battlearena.controller;
+
+// Fixed-timestep clock for the game simulation.
+//
+// The screen can refresh at any rate (60 Hz, 144 Hz, or slower when the PC is busy),
+// but the game logic always moves forward in equal steps ("ticks") of 1/tickRate seconds.
+// Frame time is collected in an "accumulator" and spent one tick at a time.
+// This makes the game behave the same on every computer.
+public class SimulationClock {
+
+    public static final int DEFAULT_TICK_RATE = 120; // ticks per second
+    public static final int DEFAULT_MAX_CATCH_UP = 8; // max ticks we run for one frame
+
+    private final int tickRate;
+    private final double tickSeconds; // length of one tick (e.g. 1/120 s)
+    private final int maxCatchUpSteps;
+
+    private double accumulator; // frame time that has not been simulated yet
+    private int stepsThisFrame; // ticks already run for the current frame
+    private long tick; // total number of ticks simulated so far
+
+    public SimulationClock() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_CATCH_UP);
+    }
+
+    public SimulationClock(int tickRate, int maxCatchUpSteps) {
+        if (tickRate <= 0) throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        if (maxCatchUpSteps <= 0) throw new IllegalArgumentException("maxCatchUpSteps must be positive: " + maxCatchUpSteps);
+
+        this.tickRate = tickRate;
+        this.tickSeconds = 1.0 / tickRate;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    // Called once per rendered frame with the real time that passed (in seconds)
+    public void addFrameTime(double frameSeconds) {
+        if (frameSeconds > 0) accumulator += frameSeconds;
+        stepsThisFrame = 0;
+    }
+
+    // Returns true if one more tick should be simulated for this frame (and counts it).
+    // Use it as: while (clock.consumeTick()) { simulate(clock.getTickSeconds()); }
+    public boolean consumeTick() {
+        if (accumulator < tickSeconds) return false;
+
+        // After a very slow frame (or a breakpoint) we would have to run hundreds of ticks.
+        // That would make the next frame slow too ("spiral of death"), so we give up
+        // on the time that is left over and just keep the fraction of one tick.
+        if (stepsThisFrame >= maxCatchUpSteps) {
+            accumulator %= tickSeconds;
+            return false;
+        }
+
+        accumulator -= tickSeconds;
+        stepsThisFrame++;
+        tick++;
+        return true;
+    }
+
+    // Back to tick 0 with nothing left to simulate (for the next match)
+    public void reset() {
+        accumulator = 0;
+        stepsThisFrame = 0;
+        tick = 0;
+    }
+
+    // How far we are between the last tick and the next one (0.0 -> 1.0)
+    public double getAlpha() {
+        return accumulator / tickSeconds;
+    }
+
+    // Simulation time in milliseconds (only moves forward when ticks run)
+    public long getTimeMs() {
+        return tick * 1000 / tickRate;
+    }
+
+    // Getters
+    public long getTick() { return tick; }
+    public int getTickRate() { return tickRate; }
+    public double getTickSeconds() { return tickSeconds; }
+    public int getMaxCatchUpSteps() { return maxCatchUpSteps; }
+}
@@ -0,0 +1,131 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.metrics.GameMetrics;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Runs the game logic on its own thread, so a slow tick never delays drawing (and the other way round).
+//
+// It ticks the GameController at its fixed tick rate using a SimulationClock,
+// and after each batch of ticks publishes a RenderState through a TripleBuffer.
+// The JavaFX thread just takes the newest RenderState when it draws a frame
+// (and slides between its previous and current positions, see RenderState.alpha).
+//
+// Input sources are polled on this thread: the keyboard hands its events over through the InputQueue,
+// which is made for exactly one writer (JavaFX) and one reader (this thread).
+//
+// It can be started again after stop() (e.g. for the next match in a restarted GameController):
+// the clock and the three RenderStates are reused, only the Thread object is new.
+public class SimulationThread {
+
+    private final GameController game;
+    private InputSource[] sources;
+    private final int[] inputs;
+    private final SimulationClock clock;
+    private final TripleBuffer<RenderState> states;
+
+    private volatile boolean running;
+    private Thread thread;
+    private GameMetrics metrics;
+    private ReplayRecorder recorder;
+
+    // One input source per player (index 0 = P1, 1 = P2)
+    public SimulationThread(GameController game, InputSource... sources) {
+        this.game = game;
+        this.sources = sources;
+        this.inputs = new int[sources.length];
+        this.clock = new SimulationClock(game.getTickRate(), SimulationClock.DEFAULT_MAX_CATCH_UP);
+        this.states = new TripleBuffer<>(() -> new RenderState(game));
+        publishFirst();
+    }
+
+    // The first state is ready before the thread starts, so the screen always has something to draw
+    private void publishFirst() {
+        states.back().copyPrevious(game);
+        publish(System.nanoTime());
+    }
+
+    public void start() {
+        if (thread != null && thread.isAlive()) throw new IllegalStateException("simulation is already running");
+        // Start from tick 0 of whatever match the game holds now
+        clock.reset();
+        publishFirst();
+
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Stops the thread and waits until it has finished its last tick
+    public void stop() {
+        running = false;
+        if (thread == null || thread == Thread.currentThread()) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        if (metrics != null) metrics.setGameThread(Thread.currentThread()); // this thread runs the game now
+        long tickNanos = (long) (clock.getTickSeconds() * 1e9);
+        long last = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            clock.addFrameTime((now - last) / 1e9);
+            last = now;
+
+            // How many ticks are due (at most a few, see SimulationClock)
+            int due = 0;
+            while (clock.consumeTick()) due++;
+            long lastDue = now - (long) (clock.getAlpha() * tickNanos); // when the last of them was due
+
+            // Run them
+            for (int k = 0; k < due; k++) {
+                // Tick k covers real time up to the moment it was due
+                long deadline = lastDue - (due - 1 - k) * tickNanos;
+                InputSource.beginTickAll(sources, deadline);
+                for (int i = 0; i < sources.length; i++) {
+                    inputs[i] = sources[i].poll(game, i);
+                }
+                if (recorder != null && !game.isOver()) recorder.record(inputs);
+                if (k == due - 1) states.back().copyPrevious(game); // where the players were before the last tick
+                game.tick(inputs);
+            }
+
+            // Hand the new state to the screen
+            if (due > 0) publish(lastDue);
+
+            // Sleep until the next tick is due
+            long wait = (long) ((1 - clock.getAlpha()) * tickNanos);
+            if (wait > 0) LockSupport.parkNanos(wait);
+        }
+    }
+
+    private void publish(long tickNanos) {
+        states.back().copyFrom(game, tickNanos);
+        states.publish();
+    }
+
+    // The newest state (call it from the one thread that draws)
+    public RenderState latest() {
+        return states.latest();
+    }
+
+    // Set these before start()
+    // One input source per player, as in the constructor (e.g. the bot instead of the keyboard for P2 in the next match)
+    public void setSources(InputSource... sources) {
+        if (sources.length != inputs.length) throw new IllegalArgumentException("need " + inputs.length + " input sources: " + sources.length);
+        this.sources = sources;
+    }
+    public void setMetrics(GameMetrics metrics) { this.metrics = metrics; }
+    public void setRecorder(ReplayRecorder recorder) { this.recorder = recorder; }
+
+    public GameController getGame() { return game; }
+    public SimulationClock getClock() { return clock; }
+    public boolean isRunning() { return running; }
+}
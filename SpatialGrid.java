@@ -0,0 +1,116 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.GameCharacter;
+
+import java.util.Arrays;
+import java.util.List;
+
+// A "spatial hash": the arena is cut into equal square cells, and every player is put
+// into the cell his center is in. To find the players near a bullet we only look at
+// the few cells around the bullet, instead of testing the bullet against every player.
+//
+// The grid is rebuilt from scratch every tick (players move), using a counting sort
+// into plain int arrays, so rebuilding creates no garbage.
+// It can also hold plain points (x[i], y[i]), e.g. the bullets of a RenderState for culling.
+public class SpatialGrid {
+
+    private final double cellSize;
+    private final double invCellSize; // 1 / cellSize, multiplying is cheaper than dividing
+    private final int cols, rows;
+
+    // Players sorted by cell: the players of cell c are items[cellStart[c]] .. items[cellStart[c + 1] - 1]
+    private final int[] cellStart;
+    private final int[] items; // player indexes
+    private final int[] itemCell; // temporary: the cell of each player while rebuilding
+
+    public SpatialGrid(double width, double height, double cellSize, int maxItems) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+
+        this.cellSize = cellSize;
+        this.invCellSize = 1.0 / cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellStart = new int[cols * rows + 1];
+        this.items = new int[maxItems];
+        this.itemCell = new int[maxItems];
+    }
+
+    // Puts every living player into his cell (dead players can't be hit, so they are left out)
+    public void rebuild(List<GameCharacter> players) {
+        Arrays.fill(cellStart, 0);
+
+        // 1. Count how many players are in each cell
+        int n = players.size();
+        for (int i = 0; i < n; i++) {
+            GameCharacter c = players.get(i);
+            if (c.isDead()) {
+                itemCell[i] = -1;
+                continue;
+            }
+            int cell = row(c.getY()) * cols + col(c.getX());
+            itemCell[i] = cell;
+            cellStart[cell + 1]++;
+        }
+
+        // 2. Turn the counts into start positions (running total)
+        for (int c = 0; c < cols * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+
+        // 3. Drop every player into its place, using cellStart as the write position of each cell.
+        //    Players are visited in index order, so inside a cell they stay sorted by index.
+        for (int i = 0; i < n; i++) {
+            int cell = itemCell[i];
+            if (cell < 0) continue;
+            items[cellStart[cell]++] = i;
+        }
+
+        // 4. Step 3 moved every start to the next cell's start, shift them back
+        for (int c = cols * rows; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    // Puts points (x[i], y[i]) for i < count into their cells
+    public void rebuild(double[] x, double[] y, int count) {
+        Arrays.fill(cellStart, 0);
+
+        // Same 4 steps as above
+        for (int i = 0; i < count; i++) {
+            int cell = row(y[i]) * cols + col(x[i]);
+            itemCell[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cols * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = 0; i < count; i++) {
+            items[cellStart[itemCell[i]]++] = i;
+        }
+        for (int c = cols * rows; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    // Column / row of a position (positions outside the arena are clamped to the border cells)
+    public int col(double x) {
+        int c = (int) (x * invCellSize);
+        return c < 0 ? 0 : Math.min(c, cols - 1);
+    }
+
+    public int row(double y) {
+        int r = (int) (y * invCellSize);
+        return r < 0 ? 0 : Math.min(r, rows - 1);
+    }
+
+    // Range of 'items' that belong to cell (col, row): [start, end)
+    public int start(int col, int row) { return cellStart[row * cols + col]; }
+    public int end(int col, int row) { return cellStart[row * cols + col + 1]; }
+    public int item(int k) { return items[k]; }
+
+    public int getCols() { return cols; }
+    public int getRows() { return rows; }
+    public double getCellSize() { return cellSize; }
+}
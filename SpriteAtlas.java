@@ -0,0 +1,296 @@
+package com.ozyra.battlearena.scenes;
+
+import com.ozyra.battlearena.model.CharacterShape;
+import com.ozyra.battlearena.model.GameCharacter;
+import com.ozyra.battlearena.model.Weapon;
+import javafx.geometry.Bounds;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// One big image that holds pre-drawn pictures ("sprites") of everything that looks the same every frame:
+// the character shapes (with their glow effects), the bullets of each weapon and the name / [weapon] labels.
+//
+// Drawing shadows and text is slow, so we do it ONCE into this image,
+// and every frame just copies ("blits") the right rectangle of it onto the screen.
+// Labels are redrawn only when a player's name or weapon changes.
+//
+// All methods must be called on the JavaFX thread (they take snapshots of a canvas).
+public class SpriteAtlas {
+
+    // Fonts are created once instead of twice per player per frame
+    static final Font NAME_FONT = Font.font("Segoe UI", FontWeight.BOLD, 12);
+    static final Font WEAPON_FONT = Font.font("Segoe UI", FontWeight.NORMAL, 10);
+
+    // Size of the square a character shape is drawn in (room for the 20px glow of the mage)
+    private static final int SHAPE_SIZE = 96;
+
+    // A rectangle inside the atlas image.
+    // (originX, originY) is the point of the sprite that should land on the position we draw at:
+    // the center for shapes, the start of the text baseline for labels.
+    public static final class Region {
+        final double x, y, width, height;
+        final double originX, originY;
+        final int generation; // which "version" of the atlas this region belongs to
+
+        Region(double x, double y, double width, double height, double originX, double originY, int generation) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.originX = originX;
+            this.originY = originY;
+            this.generation = generation;
+        }
+    }
+
+    // The cached labels of one player, and the name/weapon they were drawn for
+    private static final class PlayerLabels {
+        String name;
+        Weapon weapon;
+        Region nameLabel, weaponLabel;
+    }
+
+    private final WritableImage image;
+    private final Canvas scratch; // small offscreen canvas we draw a new sprite on before copying it in
+    private final SnapshotParameters transparent = new SnapshotParameters();
+
+    // "Shelf" packing: sprites are placed left to right in rows ("shelves")
+    private int shelfX, shelfY, shelfHeight;
+    private int generation; // goes up every time the atlas is wiped because it was full
+
+    private final Map<CharacterShape, Region> shapes = new EnumMap<>(CharacterShape.class);
+    private final Map<String, Region> labels = new HashMap<>(); // key: font name + size + text
+    private final Map<GameCharacter, PlayerLabels> players = new IdentityHashMap<>();
+    private final Map<String, Region> bullets = new HashMap<>(); // key: weapon name
+
+    // Tiny cache "weapon object -> bullet sprite", so the bullet loop normally doesn't even need the map
+    private static final int BULLET_CACHE = 8;
+    private final Weapon[] cachedWeapons = new Weapon[BULLET_CACHE];
+    private final Region[] cachedBullets = new Region[BULLET_CACHE];
+    private int nextCacheSlot;
+
+    public SpriteAtlas() {
+        this(1024, 512);
+    }
+
+    public SpriteAtlas(int width, int height) {
+        image = new WritableImage(width, height);
+        scratch = new Canvas(Math.max(SHAPE_SIZE, 256), SHAPE_SIZE);
+        transparent.setFill(Color.TRANSPARENT);
+    }
+
+    // Draws 'r' so that its origin lands on (x, y)
+    public void draw(GraphicsContext g, Region r, double x, double y) {
+        g.drawImage(image, r.x, r.y, r.width, r.height, x - r.originX, y - r.originY, r.width, r.height);
+    }
+
+    // The picture of a character shape, centered on its origin
+    public Region shape(CharacterShape shape) {
+        Region r = shapes.get(shape);
+        if (r == null || r.generation != generation) {
+            r = rasterizeShape(shape);
+            shapes.put(shape, r);
+        }
+        return r;
+    }
+
+    // The glowing bullet of a weapon, centered on its origin.
+    // Every weapon style lives in this same atlas image, so all bullets are drawn from one texture.
+    public Region projectile(Weapon weapon) {
+        for (int i = 0; i < BULLET_CACHE; i++) {
+            if (cachedWeapons[i] == weapon && cachedBullets[i] != null && cachedBullets[i].generation == generation) {
+                return cachedBullets[i];
+            }
+        }
+
+        String name = weapon == null ? "" : weapon.getName();
+        Region r = bullets.get(name);
+        if (r == null || r.generation != generation) {
+            r = rasterizeBullet(name);
+            bullets.put(name, r);
+        }
+
+        cachedWeapons[nextCacheSlot] = weapon;
+        cachedBullets[nextCacheSlot] = r;
+        nextCacheSlot = (nextCacheSlot + 1) % BULLET_CACHE;
+        return r;
+    }
+
+    // The name label of a player (only redrawn when the name changed)
+    public Region nameLabel(GameCharacter c) {
+        PlayerLabels l = players.computeIfAbsent(c, k -> new PlayerLabels());
+        if (l.nameLabel == null || l.nameLabel.generation != generation || !c.getName().equals(l.name)) {
+            l.name = c.getName();
+            l.nameLabel = label(l.name, NAME_FONT);
+        }
+        return l.nameLabel;
+    }
+
+    // The "[Sword]" label of a player (only redrawn when the weapon changed)
+    public Region weaponLabel(GameCharacter c) {
+        return weaponLabel(c, c.getWeapon());
+    }
+
+    // Same, but for a weapon taken from a RenderState
+    // (the game thread may be switching the player's weapon while we draw)
+    public Region weaponLabel(GameCharacter c, Weapon weapon) {
+        PlayerLabels l = players.computeIfAbsent(c, k -> new PlayerLabels());
+        // Weapons are compared by reference: switching weapons swaps the object
+        if (l.weaponLabel == null || l.weaponLabel.generation != generation || weapon != l.weapon) {
+            l.weapon = weapon;
+            l.weaponLabel = label("[" + weapon.getName() + "]", WEAPON_FONT);
+        }
+        return l.weaponLabel;
+    }
+
+    // Forget everything about a player that left the game
+    public void forget(GameCharacter c) {
+        players.remove(c);
+    }
+
+    // A piece of text; its origin is the left end of the baseline (same as fillText)
+    private Region label(String text, Font font) {
+        String key = font.getName() + '|' + font.getSize() + '|' + text;
+        Region r = labels.get(key);
+        if (r != null && r.generation == generation) return r;
+
+        // Measure the text so the sprite is exactly as big as needed
+        Text measure = new Text(text);
+        measure.setFont(font);
+        Bounds bounds = measure.getLayoutBounds();
+        int width = (int) Math.ceil(bounds.getWidth()) + 2;
+        int height = (int) Math.ceil(bounds.getHeight()) + 2;
+        double baseline = -bounds.getMinY() + 1;
+
+        GraphicsContext g = clearScratch();
+        g.setFill(Color.WHITE);
+        g.setFont(font);
+        g.fillText(text, 1, baseline);
+
+        r = copyIn(Math.min(width, (int) scratch.getWidth()), Math.min(height, (int) scratch.getHeight()), 1, baseline);
+        labels.put(key, r);
+        return r;
+    }
+
+    // Draws one character shape exactly like GameScene used to draw it every frame
+    private Region rasterizeShape(CharacterShape shape) {
+        GraphicsContext g = clearScratch();
+        double x = SHAPE_SIZE / 2.0, y = SHAPE_SIZE / 2.0; // center of the sprite
+
+        g.save();
+        switch (shape) {
+
+            case CIRCLE -> { //MAGE
+                g.setFill(Color.web("#9b59b6"));
+                g.setEffect(new DropShadow(20, Color.web("#8e44ad")));
+                g.fillOval(x - 20, y - 20, 40, 40);
+
+                g.setEffect(null);
+                g.setStroke(Color.WHITE);
+                g.setLineWidth(1);
+                g.strokeOval(x - 20, y - 20, 40, 40);
+            }
+
+            case SQUARE -> { //WARRIOR
+                g.setFill(Color.web("#3498db"));
+                g.setStroke(Color.web("#ecf0f1"));
+                g.setLineWidth(4);
+                g.fillRect(x - 20, y - 20, 40, 40);
+                g.strokeRect(x - 20, y - 20, 40, 40);
+            }
+
+            case TRIANGLE -> { //ARCHER
+                double[] xPoints = {x, x - 22, x + 22};
+                double[] yPoints = {y - 22, y + 22, y + 22};
+
+                g.setFill(Color.web("#2ecc71"));
+                g.setStroke(Color.web("#27ae60"));
+                g.setLineWidth(2);
+                g.fillPolygon(xPoints, yPoints, 3);
+                g.strokePolygon(xPoints, yPoints, 3);
+            }
+        }
+        g.restore();
+
+        return copyIn(SHAPE_SIZE, SHAPE_SIZE, x, y);
+    }
+
+    // A 10px ball with a 5px glow, colored by weapon
+    private Region rasterizeBullet(String weaponName) {
+        Color fill, glow;
+        switch (weaponName) {
+            case "Bow" -> { fill = Color.web("#b8f5c8"); glow = Color.web("#2ecc71"); }
+            case "Magic" -> { fill = Color.web("#e6b3ff"); glow = Color.web("#8e44ad"); }
+            default -> { fill = Color.YELLOW; glow = Color.ORANGE; } // Sword, Fist: the classic look
+        }
+
+        GraphicsContext g = clearScratch();
+        double x = 12, y = 12; // center of a 24x24 sprite
+
+        g.save();
+        g.setFill(fill);
+        g.setEffect(new DropShadow(5, glow));
+        g.fillOval(x - 5, y - 5, 10, 10);
+        g.restore();
+
+        return copyIn(24, 24, x, y);
+    }
+
+    private GraphicsContext clearScratch() {
+        GraphicsContext g = scratch.getGraphicsContext2D();
+        g.clearRect(0, 0, scratch.getWidth(), scratch.getHeight());
+        return g;
+    }
+
+    // Copies the top-left width x height pixels of the scratch canvas into a free spot of the atlas
+    private Region copyIn(int width, int height, double originX, double originY) {
+        // 1. Find a free spot: next to the last sprite, or on a new shelf below
+        if (shelfX + width > image.getWidth()) {
+            shelfX = 0;
+            shelfY += shelfHeight;
+            shelfHeight = 0;
+        }
+        if (shelfY + height > image.getHeight()) {
+            // The atlas is full (lots of different names/weapons were used): wipe it and start over.
+            // Every cached region from before is now outdated and will be redrawn when asked for.
+            wipe();
+        }
+
+        // 2. Take a picture of the scratch canvas and copy its pixels into the atlas
+        WritableImage snapshot = scratch.snapshot(transparent, null);
+        image.getPixelWriter().setPixels(shelfX, shelfY, width, height, snapshot.getPixelReader(), 0, 0);
+
+        Region r = new Region(shelfX, shelfY, width, height, originX, originY, generation);
+        shelfX += width;
+        shelfHeight = Math.max(shelfHeight, height);
+        return r;
+    }
+
+    private void wipe() {
+        generation++;
+        shelfX = shelfY = shelfHeight = 0;
+        labels.clear();
+        shapes.clear();
+        bullets.clear();
+        Arrays.fill(cachedWeapons, null);
+        Arrays.fill(cachedBullets, null);
+
+        int w = (int) image.getWidth(), h = (int) image.getHeight();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) image.getPixelWriter().setArgb(x, y, 0);
+        }
+    }
+}
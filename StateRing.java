@@ -0,0 +1,79 @@
+package com.ozyra.battlearena.controller;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Remembers the complete match state of the last N ticks, so the game can jump back in time.
+//
+// Used for rollback: when a late input for tick T arrives, restore(T), then tick again up to now
+// with the corrected inputs. And for rewinding replays.
+//
+// All the memory is reserved once in the constructor (one big buffer, one part per tick),
+// so saving and restoring never creates objects.
+//
+//   ring.save();                         // after every tick
+//   ...
+//   ring.restore(oldTick);               // go back
+//   for (...) game.tick(inputsOf(tick)); // and play forward again
+public class StateRing {
+
+    private final GameController game;
+    private final ByteBuffer[] slots; // one part of the big buffer per remembered tick
+    private final long[] ticks; // which tick is stored in each part (-1 = empty)
+    private long newest = -1;
+
+    // Remembers the last 'length' ticks of 'game'
+    public StateRing(GameController game, int length) {
+        if (length <= 0) throw new IllegalArgumentException("length must be positive: " + length);
+
+        this.game = game;
+        int slotSize = game.getStateSize();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(slotSize * length).order(ByteOrder.nativeOrder());
+
+        this.slots = new ByteBuffer[length];
+        this.ticks = new long[length];
+        for (int i = 0; i < length; i++) {
+            slots[i] = buffer.slice(i * slotSize, slotSize).order(ByteOrder.nativeOrder());
+            ticks[i] = -1;
+        }
+    }
+
+    // Saves the game as it is now (under game.getTick()), overwriting the oldest saved tick
+    public void save() {
+        long tick = game.getTick();
+        int i = slot(tick);
+        game.writeState(slots[i].clear());
+        ticks[i] = tick;
+        newest = tick;
+    }
+
+    // Puts the game back to 'tick'. Returns false if that tick isn't remembered (too old or never saved).
+    // Ticks after 'tick' are forgotten: they will be saved again while the game plays forward.
+    public boolean restore(long tick) {
+        if (!contains(tick)) return false;
+
+        game.readState(slots[slot(tick)].clear());
+        newest = tick;
+        return true;
+    }
+
+    // True if the state of 'tick' can be restored
+    public boolean contains(long tick) {
+        return tick >= 0 && tick <= newest && ticks[slot(tick)] == tick;
+    }
+
+    // The oldest tick that can still be restored (-1 if nothing was saved)
+    public long getOldestTick() {
+        if (newest < 0) return -1;
+        long oldest = newest;
+        while (oldest > 0 && contains(oldest - 1)) oldest--;
+        return oldest;
+    }
+
+    public long getNewestTick() { return newest; }
+    public int length() { return slots.length; }
+
+    private int slot(long tick) {
+        return (int) (tick % slots.length);
+    }
+}
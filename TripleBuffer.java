@@ -0,0 +1,52 @@
+package com.ozyra.battlearena.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Hands objects from ONE writer thread to ONE reader thread without locks and without copying.
+//
+// There are three objects:
+//   back   - the writer fills it
+//   middle - the newest finished one, waiting for the reader
+//   front  - the reader uses it
+// publish() swaps back and middle, latest() swaps middle and front (if there is something new).
+// Each swap is one atomic operation, so nobody ever waits, and the writer never touches
+// the object the reader is using (no "tearing").
+public class TripleBuffer<T> {
+
+    private static final int INDEX = 3; // the lower 2 bits of 'middle' = index of the middle object
+    private static final int FRESH = 4; // set while the middle object hasn't been taken by the reader
+
+    private final Object[] objects = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(0);
+    private int back = 1; // only used by the writer
+    private int front = 2; // only used by the reader
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < objects.length; i++) objects[i] = factory.get();
+    }
+
+    // ---- Writer ----
+
+    // The object to fill next
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) objects[back];
+    }
+
+    // Makes the filled back object the newest one, and gets a free object to fill next time
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    // ---- Reader ----
+
+    // The newest published object (the same one as last time if nothing new was published)
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return (T) objects[front];
+    }
+}
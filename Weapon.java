@@ -4,32 +4,36 @@ package com.ozyra.battlearena.model;
 // Any class that 'implements' Weapon MUST have these methods.
 public interface Weapon {
 
+    // Small number that identifies the weapon (see WeaponRegistry), -1 if it is not registered
+    int getId();
+
     String getName();
     int getDamage();
     double getSpeed();
     long getCooldownMs();
 
+    // How many bullets one shot fires (more than 1 = a spread)
+    default int getShotCount() { return 1; }
+
     // Defines how the weapon fires a projectile
+    // Writes the bullet into 'target' (usually a free slot from the ProjectilePool) and returns it
     // (x,y) = start pos, (dx,dy) = direction, owner = who shot it
-    Projectile createProjectile(double x, double y, double dx, double dy, GameCharacter owner);
-
-    // This helper method creates weapons for us so we don't have to type "new SimpleWeapon(...)" everywhere
-    // static means we can call this method without needing an existing weapon object
-    static Weapon createWeapon(String type) {
-
-        return switch (type) {
+    Projectile createProjectile(Projectile target, double x, double y, double dx, double dy, GameCharacter owner);
 
-            // Sword: High Damage, Medium Speed
-            case "Sword" -> new SimpleWeapon("Sword", 10, 400, 500);
-
-            // Bow: Low Damage, Fast Speed, Fast fire rate
-            case "Bow"   -> new SimpleWeapon("Bow", 7, 600, 300);
+    // Bullet number 'shot' (0 .. getShotCount() - 1) of one shot
+    default Projectile createProjectile(Projectile target, double x, double y, double dx, double dy, GameCharacter owner, int shot) {
+        return createProjectile(target, x, y, dx, dy, owner);
+    }
 
-            // Magic: Highest Damage, Slow Speed, Slow fire rate
-            case "Magic" -> new SimpleWeapon("Magic", 15, 300, 1000);
+    // Same as above, but creates a brand-new bullet object
+    default Projectile createProjectile(double x, double y, double dx, double dy, GameCharacter owner) {
+        return createProjectile(new Projectile(), x, y, dx, dy, owner);
+    }
 
-            // Default: Weak "Fist" attack if something goes wrong
-            default      -> new SimpleWeapon("Fist", 5, 200, 500);
-        };
+    // Looks a weapon up by name, so we don't have to type "new SimpleWeapon(...)" everywhere
+    // static means we can call this method without needing an existing weapon object
+    // Weapons are shared: this returns the same object every time (unknown names give the Fist)
+    static Weapon createWeapon(String type) {
+        return WeaponRegistry.byName(type);
     }
 }
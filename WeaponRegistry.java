@@ -0,0 +1,142 @@
+package com.ozyra.battlearena.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The list of all weapons in the game. Every weapon exists exactly ONCE ("flyweight"):
+// players just point at the shared object, so switching weapons is only a reference swap
+// and no new weapon is ever created during a match.
+//
+// Each weapon has a small number (its id) = its line in the weapons file, starting at 0.
+// The weapon keys pick weapons by id: WEAPON_1 = id 0, WEAPON_2 = id 1, WEAPON_3 = id 2.
+//
+// The weapons are loaded once, the first time this class is used, from assets/weapons.csv
+// (or the file in -Dbattlearena.weapons=...). One weapon per line:
+//   name, damage, speed, cooldownMs, pattern
+// pattern is "single" (one bullet) or "spread <bullets> <degrees>" (a fan of bullets).
+// If the file is missing or broken the built-in weapons below are used.
+public final class WeaponRegistry {
+
+    public static final String DEFAULT_FILE = "assets/weapons.csv";
+
+    // Used for unknown weapon names ("if something goes wrong")
+    public static final String FALLBACK = "Fist";
+
+    private static final Weapon[] WEAPONS;
+    private static final Map<String, Weapon> BY_NAME = new HashMap<>();
+
+    static {
+        Path file = Path.of(System.getProperty("battlearena.weapons", DEFAULT_FILE));
+        WEAPONS = loadOrDefaults(file);
+        for (Weapon w : WEAPONS) BY_NAME.put(w.getName(), w);
+    }
+
+    private WeaponRegistry() {} // only static methods
+
+    // The weapon with this id
+    public static Weapon byId(int id) {
+        return WEAPONS[id];
+    }
+
+    // The weapon with this name, or the Fist if there is none
+    public static Weapon byName(String name) {
+        Weapon w = BY_NAME.get(name);
+        if (w != null) return w;
+
+        Weapon fist = BY_NAME.get(FALLBACK);
+        return fist != null ? fist : WEAPONS[0];
+    }
+
+    // The weapon on weapon key number 'slot' (0 = WEAPON_1). If the file has fewer weapons, the last one.
+    public static Weapon forSlot(int slot) {
+        return WEAPONS[Math.min(slot, WEAPONS.length - 1)];
+    }
+
+    // How many weapons there are (ids go from 0 to count() - 1)
+    public static int count() {
+        return WEAPONS.length;
+    }
+
+    // ---- Loading ----
+
+    // The weapons that ship with the game (same stats as the original switch in Weapon.createWeapon)
+    static Weapon[] defaults() {
+        return new Weapon[] {
+                // Sword: High Damage, Medium Speed
+                new SimpleWeapon(0, "Sword", 10, 400, 500, 1, 0),
+                // Bow: Low Damage, Fast Speed, Fast fire rate
+                new SimpleWeapon(1, "Bow", 7, 600, 300, 1, 0),
+                // Magic: Highest Damage, Slow Speed, Slow fire rate
+                new SimpleWeapon(2, "Magic", 15, 300, 1000, 1, 0),
+                // Fist: Weak attack, used when a weapon name is unknown
+                new SimpleWeapon(3, FALLBACK, 5, 200, 500, 1, 0),
+        };
+    }
+
+    // Reads the weapons file, or returns the built-in weapons if it doesn't exist or can't be read
+    static Weapon[] loadOrDefaults(Path file) {
+        if (!Files.exists(file)) return defaults();
+
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Weapon> weapons = new ArrayList<>();
+            String line;
+            int lineNumber = 0;
+
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue; // skip blank lines and comments
+
+                try {
+                    weapons.add(parse(weapons.size(), line));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+
+            if (weapons.isEmpty()) throw new IllegalArgumentException("no weapons in file");
+            return weapons.toArray(new Weapon[0]);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Could not load weapons from " + file + ", using defaults: " + e.getMessage());
+            return defaults();
+        }
+    }
+
+    // "Bow, 7, 600, 300, single" -> a weapon with this id
+    private static Weapon parse(int id, String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 5) throw new IllegalArgumentException("expected 'name, damage, speed, cooldownMs, pattern'");
+
+        String name = parts[0].trim();
+        int damage = Integer.parseInt(parts[1].trim());
+        double speed = Double.parseDouble(parts[2].trim());
+        long cooldown = Long.parseLong(parts[3].trim());
+        if (damage < 0) throw new IllegalArgumentException("damage can't be negative: " + damage);
+        if (!(speed >= 0)) throw new IllegalArgumentException("speed can't be negative: " + speed); // (also catches NaN)
+        if (cooldown < 0) throw new IllegalArgumentException("cooldown can't be negative: " + cooldown);
+
+        // Pattern: "single" or "spread <bullets> <degrees>"
+        String[] pattern = parts[4].trim().split("\\s+");
+        int shots = 1;
+        double spreadDegrees = 0;
+        switch (pattern[0].toLowerCase()) {
+            case "single" -> { }
+            case "spread" -> {
+                if (pattern.length != 3) throw new IllegalArgumentException("expected 'spread <bullets> <degrees>'");
+                shots = Integer.parseInt(pattern[1]);
+                spreadDegrees = Double.parseDouble(pattern[2]);
+                if (shots < 1) throw new IllegalArgumentException("a spread needs at least 1 bullet");
+            }
+            default -> throw new IllegalArgumentException("unknown pattern: " + parts[4].trim());
+        }
+
+        return new SimpleWeapon(id, name, damage, speed, cooldown, shots, Math.toRadians(spreadDegrees));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ozyra.battlearena.controller;
+
+import com.ozyra.battlearena.model.Weapon;
+import com.ozyra.battlearena.model.WeaponRegistry;
+
+import java.util.Arrays;
+
+// Numbers for the weapons of a match, so GameController.writeState can save a weapon as an int
+// and readState gets back the SAME Weapon object (with its own stats).
+// The registry id alone is not enough: a SimpleWeapon.withStats copy has the id of the stock weapon,
+// and weapons made with 'new' have no id at all (-1).
+//
+// The table starts with the registry weapons (number = registry id). Any other weapon gets the next
+// free number the first time it is saved. A controller and its copies share one table, so a number
+// means the same weapon in all of them.
+// Adding makes a new array (and is locked), so other threads reading numbers never see a half-written one.
+final class WeaponTable {
+
+    private volatile Weapon[] weapons;
+
+    WeaponTable() {
+        Weapon[] registry = new Weapon[WeaponRegistry.count()];
+        for (int i = 0; i < registry.length; i++) registry[i] = WeaponRegistry.byId(i);
+        weapons = registry;
+    }
+
+    // The number of 'w' (-1 for null). A weapon seen for the first time is added.
+    int indexOf(Weapon w) {
+        if (w == null) return -1;
+        Weapon[] table = weapons;
+
+        // Registry weapons sit at their id: no search needed
+        int id = w.getId();
+        if (id >= 0 && id < table.length && table[id] == w) return id;
+
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == w) return i;
+        }
+        return add(w);
+    }
+
+    private synchronized int add(Weapon w) {
+        Weapon[] table = weapons;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == w) return i; // another thread added it meanwhile
+        }
+        Weapon[] bigger = Arrays.copyOf(table, table.length + 1);
+        bigger[table.length] = w;
+        weapons = bigger;
+        return table.length;
+    }
+
+    // The weapon with number 'index' (null for -1)
+    Weapon get(int index) {
+        return index < 0 ? null : weapons[index];
+    }
+}